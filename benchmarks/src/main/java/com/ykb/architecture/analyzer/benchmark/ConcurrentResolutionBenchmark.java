@@ -0,0 +1,121 @@
+package com.ykb.architecture.analyzer.benchmark;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.type.Type;
+import com.ykb.architecture.analyzer.parser.util.TypeResolutionContext;
+import com.ykb.architecture.analyzer.parser.util.TypeResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cold schema resolution of many resources on a shared {@link TypeResolver}, with
+ * {@code threads} workers. Every invocation starts from a new context, so all solver and
+ * schema caches are empty and nearly every lookup is a miss; the time should drop as
+ * threads are added, up to the number of cores.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=benchmark-logback.xml")
+@State(Scope.Benchmark)
+public class ConcurrentResolutionBenchmark {
+    private static final int RESOURCES = 200;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    @Param({"3"})
+    private int dtoDepth;
+
+    @Param({"2"})
+    private int inheritanceDepth;
+
+    private Path root;
+    private List<Path> javaFiles;
+    private ExecutorService executor;
+    private TypeResolver resolver;
+    private Type[] requestTypes;
+    private Type[] responseTypes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("analyzer-bench-");
+        new SyntheticRepository(RESOURCES, 0, 4, dtoDepth, inheritanceDepth, 8).generate(root);
+        try (Stream<Path> files = Files.walk(root)) {
+            javaFiles = files.filter(path -> path.toString().endsWith(".java")).collect(Collectors.toList());
+        }
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * A new context with an empty unit cache, so DTOs are parsed and solved during resolution.
+     * Only the controllers are parsed up front.
+     */
+    @Setup(Level.Invocation)
+    public void newContext() throws IOException {
+        TypeResolutionContext context = new TypeResolutionContext(root.toString(), RESOURCES, null, true);
+        context.getClassIndex().build(javaFiles);
+        requestTypes = new Type[RESOURCES];
+        responseTypes = new Type[RESOURCES];
+        for (int i = 0; i < RESOURCES; i++) {
+            CompilationUnit compilationUnit = context.parse(SyntheticRepository.controllerFile(root, i));
+            MethodDeclaration create = compilationUnit.findFirst(MethodDeclaration.class,
+                method -> method.getNameAsString().equals("create1")).orElseThrow();
+            requestTypes[i] = create.getParameters().stream()
+                    .filter(parameter -> parameter.isAnnotationPresent("RequestBody"))
+                    .map(Parameter::getType)
+                    .findFirst()
+                    .orElseThrow();
+            responseTypes[i] = create.getType();
+        }
+        resolver = new TypeResolver(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        SyntheticRepository.delete(root);
+    }
+
+    @Benchmark
+    public int resolveCold() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> results = new ArrayList<>(RESOURCES);
+        for (int i = 0; i < RESOURCES; i++) {
+            int resource = i;
+            results.add(executor.submit(() -> resolver.resolveRequestBody(requestTypes[resource], true).size()
+                + resolver.resolveResponseBody(responseTypes[resource]).size()));
+        }
+        int fields = 0;
+        for (Future<Integer> result : results) {
+            fields += result.get();
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ykb.architecture.analyzer.benchmark;
+
+import com.ykb.architecture.analyzer.core.model.report.ServiceReport;
+import com.ykb.architecture.analyzer.service.AnalyzerOptions;
+import com.ykb.architecture.analyzer.service.AnalyzerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end analysis of a synthetic repository. Every invocation starts from a new
+ * {@link AnalyzerService}, so parser, symbol solver and schema caches start cold, as in a CLI run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=benchmark-logback.xml")
+@State(Scope.Benchmark)
+public class FullAnalysisBenchmark {
+    @Param({"50", "200"})
+    private int controllers;
+
+    @Param({"25"})
+    private int feignClients;
+
+    @Param({"3"})
+    private int dtoDepth;
+
+    @Param({"2"})
+    private int inheritanceDepth;
+
+    @Param({"1", "4"})
+    private int threads;
+
+    private Path root;
+    private AnalyzerOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("analyzer-bench-");
+        new SyntheticRepository(controllers, feignClients, 4, dtoDepth, inheritanceDepth, 8).generate(root);
+        options = AnalyzerOptions.defaults().toBuilder().threads(threads).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticRepository.delete(root);
+    }
+
+    @Benchmark
+    public ServiceReport analyze() {
+        return new AnalyzerService(root.toString(), SyntheticRepository.configPath(root).toString(), options)
+                .analyze();
+    }
+}
@@ -0,0 +1,115 @@
+package com.ykb.architecture.analyzer.benchmark;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.ykb.architecture.analyzer.core.model.endpoint.ConsumedEndpoint;
+import com.ykb.architecture.analyzer.core.model.method.ApiCall;
+import com.ykb.architecture.analyzer.parser.consumer.FeignClientParser;
+import com.ykb.architecture.analyzer.parser.provider.RestControllerParser;
+import com.ykb.architecture.analyzer.parser.util.ConfigReader;
+import com.ykb.architecture.analyzer.parser.util.TypeResolutionContext;
+import com.ykb.architecture.analyzer.parser.util.TypeResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cost of one file: parsing it with JavaParser and running the endpoint parser on it.
+ * Each invocation takes the next controller or client and a fresh {@link TypeResolver},
+ * so schemas are resolved again; the symbol solver's type caches stay warm.
+ * {@code lightweightParse} compares the full parse with the parse without method bodies,
+ * comments and tokens; run with {@code -prof gc} to compare allocation per file as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=benchmark-logback.xml")
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+    private static final int FILES = 20;
+
+    @Param({"3"})
+    private int dtoDepth;
+
+    @Param({"2"})
+    private int inheritanceDepth;
+
+    @Param({"20"})
+    private int bodyStatements;
+
+    @Param({"false", "true"})
+    private boolean lightweightParse;
+
+    private Path root;
+    private TypeResolutionContext context;
+    private ConfigReader configReader;
+    private Path[] controllerFiles;
+    private Path[] feignClientFiles;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("analyzer-bench-");
+        new SyntheticRepository(FILES, FILES, 4, dtoDepth, inheritanceDepth, 8)
+                .withBodyStatements(bodyStatements)
+                .generate(root);
+        context = new TypeResolutionContext(root.toString(), TypeResolutionContext.DEFAULT_COMPILATION_UNIT_CACHE_SIZE,
+            null, lightweightParse);
+        try (Stream<Path> files = Files.walk(root)) {
+            List<Path> javaFiles = files.filter(path -> path.toString().endsWith(".java")).collect(Collectors.toList());
+            context.getClassIndex().build(javaFiles);
+        }
+        configReader = new ConfigReader(SyntheticRepository.configPath(root).toString());
+        controllerFiles = new Path[FILES];
+        feignClientFiles = new Path[FILES];
+        for (int i = 0; i < FILES; i++) {
+            controllerFiles[i] = SyntheticRepository.controllerFile(root, i);
+            feignClientFiles[i] = SyntheticRepository.feignClientFile(root, i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticRepository.delete(root);
+    }
+
+    @Benchmark
+    public CompilationUnit parseSource() throws IOException {
+        return context.parse(controllerFiles[nextFile()]);
+    }
+
+    @Benchmark
+    public List<ApiCall> parseRestController() throws IOException {
+        CompilationUnit compilationUnit = context.parse(controllerFiles[nextFile()]);
+        return new RestControllerParser(new TypeResolver(context)).parse(compilationUnit);
+    }
+
+    @Benchmark
+    public List<ConsumedEndpoint> parseFeignClient() throws IOException {
+        CompilationUnit compilationUnit = context.parse(feignClientFiles[nextFile()]);
+        return new FeignClientParser(new TypeResolver(context), configReader).parse(compilationUnit);
+    }
+
+    private int nextFile() {
+        next = (next + 1) % FILES;
+        return next;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ykb.architecture.analyzer.benchmark;
+
+import com.ykb.architecture.analyzer.parser.util.PathTemplateIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup throughput of {@link PathTemplateIndex} for an index of generated endpoint templates.
+ * Lookups mix concrete paths, template paths and paths that match nothing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathTemplateIndexBenchmark {
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE"};
+    private static final int LOOKUPS = 4096;
+
+    @Param({"1000", "10000"})
+    private int templates;
+
+    private PathTemplateIndex<String> index;
+    private String[] lookupMethods;
+    private String[] lookupPaths;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new PathTemplateIndex<>();
+        String[] generated = new String[templates];
+        for (int i = 0; i < templates; i++) {
+            generated[i] = template(i);
+            index.add(METHODS[i % METHODS.length], generated[i], generated[i]);
+        }
+
+        lookupMethods = new String[LOOKUPS];
+        lookupPaths = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int target = random.nextInt(templates);
+            lookupMethods[i] = METHODS[target % METHODS.length];
+            switch (i % 4) {
+                case 0:
+                    lookupPaths[i] = generated[target];
+                    break;
+                case 1:
+                case 2:
+                    lookupPaths[i] = generated[target].replaceAll("\\{[^}]+}", String.valueOf(random.nextInt(100_000)));
+                    break;
+                default:
+                    lookupPaths[i] = generated[target] + "/unknown";
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Templates of one to four levels below a service and resource prefix, about half of them with variables.
+     */
+    private static String template(int i) {
+        StringBuilder template = new StringBuilder("/api/service").append(i % 50).append("/resource").append(i / 50);
+        int depth = 1 + i % 4;
+        for (int level = 0; level < depth; level++) {
+            if ((i + level) % 2 == 0) {
+                template.append("/{id").append(level).append('}');
+            } else {
+                template.append("/sub").append(level);
+            }
+        }
+        return template.toString();
+    }
+
+    @Benchmark
+    public Optional<String> match() {
+        int i = next++ & (LOOKUPS - 1);
+        return index.match(lookupMethods[i], lookupPaths[i]);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ykb.architecture.analyzer.benchmark;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.type.Type;
+import com.ykb.architecture.analyzer.parser.util.TypeResolutionContext;
+import com.ykb.architecture.analyzer.parser.util.TypeResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cost of turning DTO types into request and response schemas. The cold variants use a new
+ * {@link TypeResolver} per invocation and measure a full walk of the DTO graph; the warm
+ * variant reuses one resolver and measures a schema cache hit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=benchmark-logback.xml")
+@State(Scope.Benchmark)
+public class SchemaResolutionBenchmark {
+    private static final int RESOURCES = 20;
+
+    @Param({"1", "3", "6"})
+    private int dtoDepth;
+
+    @Param({"0", "3"})
+    private int inheritanceDepth;
+
+    @Param({"8"})
+    private int fieldsPerDto;
+
+    private Path root;
+    private TypeResolutionContext context;
+    private TypeResolver warmResolver;
+    private Type[] requestTypes;
+    private Type[] responseTypes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("analyzer-bench-");
+        new SyntheticRepository(RESOURCES, 0, 4, dtoDepth, inheritanceDepth, fieldsPerDto).generate(root);
+        context = new TypeResolutionContext(root.toString());
+        try (Stream<Path> files = Files.walk(root)) {
+            List<Path> javaFiles = files.filter(path -> path.toString().endsWith(".java")).collect(Collectors.toList());
+            context.getClassIndex().build(javaFiles);
+        }
+
+        // The create endpoint of every controller takes the resource DTO as body and returns it
+        requestTypes = new Type[RESOURCES];
+        responseTypes = new Type[RESOURCES];
+        for (int i = 0; i < RESOURCES; i++) {
+            CompilationUnit compilationUnit = context.parse(SyntheticRepository.controllerFile(root, i));
+            MethodDeclaration create = compilationUnit.findFirst(MethodDeclaration.class,
+                method -> method.getNameAsString().equals("create1")).orElseThrow();
+            requestTypes[i] = create.getParameters().stream()
+                    .filter(parameter -> parameter.isAnnotationPresent("RequestBody"))
+                    .map(Parameter::getType)
+                    .findFirst()
+                    .orElseThrow();
+            responseTypes[i] = create.getType();
+        }
+        warmResolver = new TypeResolver(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticRepository.delete(root);
+    }
+
+    @Benchmark
+    public Map<String, Object> resolveRequestBodyCold() {
+        return new TypeResolver(context).resolveRequestBody(requestTypes[nextType()], true);
+    }
+
+    @Benchmark
+    public Map<String, Object> resolveResponseBodyCold() {
+        return new TypeResolver(context).resolveResponseBody(responseTypes[nextType()]);
+    }
+
+    @Benchmark
+    public Map<String, Object> resolveRequestBodyWarm() {
+        return warmResolver.resolveRequestBody(requestTypes[nextType()], true);
+    }
+
+    private int nextType() {
+        next = (next + 1) % RESOURCES;
+        return next;
+    }
+}
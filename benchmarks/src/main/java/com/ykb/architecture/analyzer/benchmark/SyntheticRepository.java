@@ -0,0 +1,274 @@
+package com.ykb.architecture.analyzer.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Generates a Spring service with REST controllers, Feign clients and DTO graphs of
+ * configurable size, so benchmarks run against the same sources on every version.
+ * <p>
+ * Every controller owns one resource with a request/response DTO. The DTO extends a chain of
+ * {@code inheritanceDepth} base classes and nests {@code dtoDepth} levels of child DTOs, each
+ * level referenced both directly and as a list. Feign clients call the controllers' resources
+ * through application names read from {@code application.yml}. Controller methods return null
+ * unless {@link #withBodyStatements(int)} gives them bodies like those of real services.
+ */
+public class SyntheticRepository {
+    public static final String BASE_PACKAGE = "com.example.bench";
+    private static final String[] FIELD_TYPES = {"String", "Long", "int", "boolean", "java.math.BigDecimal",
+        "java.time.LocalDate"};
+    private static final String RETURN_NULL = "        return null;\n";
+
+    private final int controllers;
+    private final int feignClients;
+    private final int endpointsPerController;
+    private final int dtoDepth;
+    private final int inheritanceDepth;
+    private final int fieldsPerDto;
+    private int bodyStatements;
+
+    public SyntheticRepository(int controllers, int feignClients, int endpointsPerController,
+                               int dtoDepth, int inheritanceDepth, int fieldsPerDto) {
+        this.controllers = Math.max(1, controllers);
+        this.feignClients = Math.max(0, feignClients);
+        this.endpointsPerController = Math.max(1, endpointsPerController);
+        this.dtoDepth = Math.max(0, dtoDepth);
+        this.inheritanceDepth = Math.max(0, inheritanceDepth);
+        this.fieldsPerDto = Math.max(1, fieldsPerDto);
+    }
+
+    /**
+     * Gives every controller method this many statements (local variables, calls and
+     * conditionals) before its return statement.
+     */
+    public SyntheticRepository withBodyStatements(int bodyStatements) {
+        this.bodyStatements = Math.max(0, bodyStatements);
+        return this;
+    }
+
+    /**
+     * Writes the service below the root: sources under {@code service/src/main/java} and
+     * the configuration under {@code service/src/main/resources/application.yml}.
+     */
+    public void generate(Path root) throws IOException {
+        Path sources = root.resolve("service/src/main/java").resolve(BASE_PACKAGE.replace('.', '/'));
+        Files.createDirectories(sources.resolve("web"));
+        Files.createDirectories(sources.resolve("client"));
+        Files.createDirectories(sources.resolve("dto"));
+
+        for (int resource = 0; resource < controllers; resource++) {
+            write(sources.resolve("web/Resource" + resource + "Controller.java"), controller(resource));
+            writeDtos(sources.resolve("dto"), resource);
+        }
+        for (int client = 0; client < feignClients; client++) {
+            write(sources.resolve("client/Remote" + client + "Client.java"), feignClient(client));
+        }
+
+        Path resources = root.resolve("service/src/main/resources");
+        Files.createDirectories(resources);
+        write(resources.resolve("application.yml"), configuration());
+    }
+
+    public static Path configPath(Path root) {
+        return root.resolve("service/src/main/resources/application.yml");
+    }
+
+    public static Path controllerFile(Path root, int resource) {
+        return root.resolve("service/src/main/java").resolve(BASE_PACKAGE.replace('.', '/'))
+                .resolve("web/Resource" + resource + "Controller.java");
+    }
+
+    public static Path feignClientFile(Path root, int client) {
+        return root.resolve("service/src/main/java").resolve(BASE_PACKAGE.replace('.', '/'))
+                .resolve("client/Remote" + client + "Client.java");
+    }
+
+    /**
+     * Deletes a generated repository.
+     */
+    public static void delete(Path root) {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String controller(int resource) {
+        String dto = "Resource" + resource + "Dto";
+        StringBuilder source = new StringBuilder()
+                .append("package ").append(BASE_PACKAGE).append(".web;\n\n")
+                .append("import ").append(BASE_PACKAGE).append(".dto.*;\n")
+                .append("import org.springframework.http.ResponseEntity;\n")
+                .append("import org.springframework.web.bind.annotation.*;\n")
+                .append("import javax.validation.Valid;\n")
+                .append("import java.util.List;\n\n")
+                .append("@RestController\n")
+                .append("@RequestMapping(\"/api/resource").append(resource).append("\")\n")
+                .append("public class Resource").append(resource).append("Controller {\n");
+        for (int endpoint = 0; endpoint < endpointsPerController; endpoint++) {
+            source.append(endpoint(endpoint, dto, methodBody(endpoint)));
+        }
+        return source.append("}\n").toString();
+    }
+
+    private String feignClient(int client) {
+        int resource = client % controllers;
+        String dto = "Resource" + resource + "Dto";
+        StringBuilder source = new StringBuilder()
+                .append("package ").append(BASE_PACKAGE).append(".client;\n\n")
+                .append("import ").append(BASE_PACKAGE).append(".dto.*;\n")
+                .append("import org.springframework.cloud.openfeign.FeignClient;\n")
+                .append("import org.springframework.http.ResponseEntity;\n")
+                .append("import org.springframework.web.bind.annotation.*;\n")
+                .append("import javax.validation.Valid;\n")
+                .append("import java.util.List;\n\n")
+                .append("@FeignClient(name = \"${clients.remote").append(client % 10)
+                .append("}\", path = \"/api/resource").append(resource).append("\")\n")
+                .append("public interface Remote").append(client).append("Client {\n");
+        for (int endpoint = 0; endpoint < endpointsPerController; endpoint++) {
+            source.append(endpoint(endpoint, dto, RETURN_NULL).replace(" {\n" + RETURN_NULL + "    }", ";"));
+        }
+        return source.append("}\n").toString();
+    }
+
+    /**
+     * Cycles through the common endpoint shapes: lookup by id, create with a validated body,
+     * filtered list and update.
+     */
+    private static String endpoint(int endpoint, String dto, String body) {
+        switch (endpoint % 4) {
+            case 0:
+                return "\n    @GetMapping(\"/item" + endpoint + "/{id}\")\n"
+                    + "    public ResponseEntity<" + dto + "> get" + endpoint + "(@PathVariable Long id) {\n"
+                    + body + "    }\n";
+            case 1:
+                return "\n    @PostMapping(\"/item" + endpoint + "\")\n"
+                    + "    public " + dto + " create" + endpoint + "(@Valid @RequestBody " + dto + " body) {\n"
+                    + body + "    }\n";
+            case 2:
+                return "\n    @GetMapping(\"/item" + endpoint + "\")\n"
+                    + "    public List<" + dto + "> list" + endpoint
+                    + "(@RequestParam(required = false) String status, @RequestParam int page) {\n"
+                    + body + "    }\n";
+            default:
+                return "\n    @PutMapping(\"/item" + endpoint + "/{id}\")\n"
+                    + "    public ResponseEntity<" + dto + "> update" + endpoint
+                    + "(@PathVariable(\"id\") Long id, @RequestBody " + dto + " body) {\n"
+                    + body + "    }\n";
+        }
+    }
+
+    private String methodBody(int endpoint) {
+        StringBuilder body = new StringBuilder();
+        for (int statement = 0; statement < bodyStatements; statement++) {
+            String name = "step" + statement;
+            if (statement % 2 == 0) {
+                body.append("        String ").append(name).append(" = String.valueOf(").append(statement)
+                    .append(").trim() + \"/item").append(endpoint).append("\";\n");
+            } else {
+                body.append("        if (step").append(statement - 1).append(".isEmpty()) {\n")
+                    .append("            throw new IllegalStateException(\"Empty step \" + step")
+                    .append(statement - 1).append(");\n        }\n");
+            }
+        }
+        return body.append(RETURN_NULL).toString();
+    }
+
+    private void writeDtos(Path directory, int resource) throws IOException {
+        String prefix = "Resource" + resource;
+        for (int level = 0; level < inheritanceDepth; level++) {
+            String parent = level == 0 ? null : prefix + "Base" + (level - 1);
+            write(directory.resolve(prefix + "Base" + level + ".java"),
+                dto(prefix, prefix + "Base" + level, parent, null, "base" + level));
+        }
+        String rootParent = inheritanceDepth == 0 ? null : prefix + "Base" + (inheritanceDepth - 1);
+        String firstChild = dtoDepth == 0 ? null : prefix + "Level1";
+        write(directory.resolve(prefix + "Dto.java"), dto(prefix, prefix + "Dto", rootParent, firstChild, "value"));
+        for (int level = 1; level <= dtoDepth; level++) {
+            String child = level == dtoDepth ? null : prefix + "Level" + (level + 1);
+            write(directory.resolve(prefix + "Level" + level + ".java"),
+                dto(prefix, prefix + "Level" + level, null, child, "level" + level));
+        }
+        write(directory.resolve(prefix + "Status.java"),
+            "package " + BASE_PACKAGE + ".dto;\n\npublic enum " + prefix + "Status {\n"
+                + "    ACTIVE, PASSIVE, DELETED\n}\n");
+    }
+
+    private String dto(String prefix, String name, String parent, String child, String fieldPrefix) {
+        StringBuilder source = new StringBuilder()
+                .append("package ").append(BASE_PACKAGE).append(".dto;\n\n")
+                .append("import com.fasterxml.jackson.annotation.JsonProperty;\n")
+                .append("import javax.validation.constraints.NotNull;\n")
+                .append("import java.util.List;\n\n")
+                .append("public class ").append(name)
+                .append(parent != null ? " extends " + parent : "").append(" {\n");
+        for (int field = 0; field < fieldsPerDto; field++) {
+            if (field % 3 == 0) {
+                source.append("    @NotNull\n");
+            } else if (field % 5 == 0) {
+                source.append("    @JsonProperty(\"").append(fieldPrefix).append('_').append(field).append("\")\n");
+            }
+            source.append("    private ").append(FIELD_TYPES[field % FIELD_TYPES.length]).append(' ')
+                  .append(fieldPrefix).append(field).append(";\n");
+        }
+        source.append("    private ").append(prefix).append("Status status;\n");
+        if (child != null) {
+            source.append("    private ").append(child).append(" child;\n")
+                  .append("    private List<").append(child).append("> children;\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    private String configuration() {
+        StringBuilder configuration = new StringBuilder()
+                .append("spring:\n  application:\n    name: bench.synthetic.synthetic-service\n")
+                .append("clients:\n");
+        for (int remote = 0; remote < 10; remote++) {
+            configuration.append("  remote").append(remote).append(": bench.synthetic.remote-service-")
+                         .append(remote).append('\n');
+        }
+        return configuration.toString();
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.writeString(path, content);
+    }
+
+    /**
+     * Generates a repository for manual runs:
+     * {@code <directory> [controllers] [feignClients] [endpointsPerController] [dtoDepth] [inheritanceDepth] [fieldsPerDto]
+     * [bodyStatements]}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SyntheticRepository <directory> [controllers] [feignClients] "
+                + "[endpointsPerController] [dtoDepth] [inheritanceDepth] [fieldsPerDto] [bodyStatements]");
+            System.exit(1);
+        }
+        SyntheticRepository repository = new SyntheticRepository(
+            intArgument(args, 1, 100), intArgument(args, 2, 50), intArgument(args, 3, 4),
+            intArgument(args, 4, 3), intArgument(args, 5, 2), intArgument(args, 6, 8))
+            .withBodyStatements(intArgument(args, 7, 0));
+        Path root = Path.of(args[0]);
+        repository.generate(root);
+        System.out.println("Generated synthetic repository in " + root.toAbsolutePath());
+    }
+
+    private static int intArgument(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
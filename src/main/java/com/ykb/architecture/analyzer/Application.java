@@ -1,45 +1,207 @@
 package com.ykb.architecture.analyzer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ykb.architecture.analyzer.core.model.batch.BatchSummary;
+import com.ykb.architecture.analyzer.core.model.graph.DependencyGraph;
 import com.ykb.architecture.analyzer.core.model.report.ServiceReport;
+import com.ykb.architecture.analyzer.service.AnalyzerOptions;
+import com.ykb.architecture.analyzer.service.AnalyzerServer;
 import com.ykb.architecture.analyzer.service.AnalyzerService;
+import com.ykb.architecture.analyzer.service.BatchAnalyzer;
+import com.ykb.architecture.analyzer.service.DependencyGraphBuilder;
+import com.ykb.architecture.analyzer.service.ReportFormat;
+import com.ykb.architecture.analyzer.service.ReportWriter;
+import com.ykb.architecture.analyzer.service.WatchAnalyzer;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class Application {
-    private static final ObjectMapper objectMapper = new ObjectMapper()
-            .enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String BATCH_OPTION = "--batch=";
+    private static final String GRAPH_OPTION = "--graph=";
+    private static final String SERVE_OPTION = "--serve";
+    private static final String WATCH_OPTION = "--watch";
+    private static final String OUTPUT_DIR_OPTION = "--output-dir=";
+    private static final String TOKEN_FILE_OPTION = "--token-file=";
+    private static final String GRAPH_OUTPUT = "dependency_graph.json";
 
     public static void main(String[] args) {
+        if (args.length >= 1 && args[0].startsWith(BATCH_OPTION)) {
+            runBatch(args);
+            return;
+        }
+        if (args.length >= 1 && args[0].startsWith(GRAPH_OPTION)) {
+            runGraph(args);
+            return;
+        }
+        if (args.length >= 1 && args[0].startsWith(SERVE_OPTION)) {
+            runServer(args);
+            return;
+        }
         if (args.length < 2) {
             log.error("Please provide source root path and config file path as arguments");
+            log.error("Usage: <sourceRoot> <configPath> [--threads=N] [--io-concurrency=N] [--cu-cache-size=N] [--shared-schemas] [--max-schema-depth=N] [--max-fields=N] [--max-schema-nodes=N] [--no-prefilter] [--full-parse] [--incremental-cache=DIR] [--stream] [--compact] [--format=json|smile] [--classpath=JAR|DIR[,...]] [--jar-index=FILE] [--jmx] [--watch]");
+            log.error("   or: --batch=<manifest.yml|manifest.json> [options]");
+            log.error("   or: --graph=<report or directory>[,<report or directory>...]");
+            log.error("   or: --serve[=port] [--output-dir=DIR] [--token-file=FILE] [options]");
             System.exit(1);
         }
 
         try {
             String sourceRoot = args[0];
             String configPath = args[1];
-            String outputFile = "endpoint_analysis_report.json";
+            boolean watch = Arrays.asList(args).contains(WATCH_OPTION);
+            AnalyzerOptions options = parseOptions(Arrays.stream(args)
+                    .filter(arg -> !arg.equals(WATCH_OPTION))
+                    .toArray(String[]::new), 2);
+            String outputFile = "endpoint_analysis_report" + options.getReportFormat().getExtension();
 
             log.info("Analyzing source root: {} with config: {}", sourceRoot, configPath);
-            
-            AnalyzerService analyzerService = new AnalyzerService(sourceRoot, configPath);
-            ServiceReport report = analyzerService.analyze();
 
-            // Write report to file
             Path outputPath = Paths.get(outputFile);
-            objectMapper.writeValue(outputPath.toFile(), report);
-            
+            if (watch) {
+                // Runs until the process is stopped
+                new WatchAnalyzer(sourceRoot, configPath, outputPath, options,
+                    WatchAnalyzer.DEFAULT_DEBOUNCE_MILLIS).run();
+                return;
+            }
+            AnalyzerService analyzerService = new AnalyzerService(sourceRoot, configPath, options);
+            if (options.isStreamOutput()) {
+                // Endpoints are written while files are analyzed
+                try (ReportWriter writer = ReportWriter.open(outputPath, options.getReportFormat(), options.isCompactOutput())) {
+                    analyzerService.analyze(writer);
+                }
+            } else {
+                ServiceReport report = analyzerService.analyze();
+                analyzerService.getMetrics().startPhase("write");
+                ReportWriter.write(report, outputPath, options.getReportFormat(), options.isCompactOutput());
+                analyzerService.getMetrics().endPhase();
+            }
+
             log.info("Analysis complete. Report written to: {}", outputPath.toAbsolutePath());
+            Path metricsPath = analyzerService.getMetrics().write(outputPath);
+            log.info("Metrics written to: {}", metricsPath.toAbsolutePath());
 
         } catch (Exception e) {
             log.error("Analysis failed: {}", e.getMessage(), e);
             System.exit(1);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Analyzes every repository of a manifest in this JVM; exits with 1 if any of them failed.
+     */
+    private static void runBatch(String[] args) {
+        try {
+            Path manifestPath = Paths.get(args[0].substring(BATCH_OPTION.length()));
+            BatchSummary summary = new BatchAnalyzer(manifestPath, parseOptions(args, 1)).run();
+            if (summary.getFailed() > 0) {
+                System.exit(1);
+            }
+        } catch (Exception e) {
+            log.error("Batch analysis failed: {}", e.getMessage(), e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Builds the cross-service dependency graph from existing reports.
+     */
+    private static void runGraph(String[] args) {
+        try {
+            List<Path> reportPaths = Arrays.stream(args[0].substring(GRAPH_OPTION.length()).split(","))
+                    .map(Paths::get)
+                    .collect(Collectors.toList());
+            DependencyGraph graph = DependencyGraphBuilder.fromReports(reportPaths);
+            Path outputPath = Paths.get(GRAPH_OUTPUT);
+            DependencyGraphBuilder.write(graph, outputPath);
+            log.info("Dependency graph written to: {}", outputPath.toAbsolutePath());
+        } catch (Exception e) {
+            log.error("Building the dependency graph failed: {}", e.getMessage(), e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Serves analysis requests on localhost until a shutdown request arrives.
+     */
+    private static void runServer(String[] args) {
+        try {
+            int port = args[0].startsWith(SERVE_OPTION + "=")
+                    ? Integer.parseInt(args[0].substring(SERVE_OPTION.length() + 1))
+                    : AnalyzerServer.DEFAULT_PORT;
+            Path outputDirectory = serverOption(args, OUTPUT_DIR_OPTION);
+            Path tokenFile = serverOption(args, TOKEN_FILE_OPTION);
+            AnalyzerOptions options = parseOptions(Arrays.stream(args)
+                    .filter(arg -> !arg.startsWith(OUTPUT_DIR_OPTION) && !arg.startsWith(TOKEN_FILE_OPTION))
+                    .toArray(String[]::new), 1);
+            AnalyzerServer server = new AnalyzerServer(port, options, outputDirectory, tokenFile);
+            server.start();
+            server.awaitStop();
+        } catch (Exception e) {
+            log.error("Analyzer server failed: {}", e.getMessage(), e);
+            System.exit(1);
+        }
+    }
+
+    private static Path serverOption(String[] args, String prefix) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(prefix))
+                .map(arg -> Path.of(arg.substring(prefix.length())))
+                .reduce((first, last) -> last)
+                .orElse(null);
+    }
+
+    /**
+     * Reads optional --name=value flags that follow the positional arguments.
+     */
+    private static AnalyzerOptions parseOptions(String[] args, int firstOption) {
+        AnalyzerOptions options = AnalyzerOptions.defaults();
+        for (int i = firstOption; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--threads=")) {
+                options.setThreads(Integer.parseInt(arg.substring("--threads=".length())));
+            } else if (arg.startsWith("--cu-cache-size=")) {
+                options.setCompilationUnitCacheSize(Integer.parseInt(arg.substring("--cu-cache-size=".length())));
+            } else if (arg.startsWith("--io-concurrency=")) {
+                options.setIoConcurrency(Integer.parseInt(arg.substring("--io-concurrency=".length())));
+            } else if (arg.startsWith("--max-schema-depth=")) {
+                options.getSchemaLimits().setMaxDepth(Integer.parseInt(arg.substring("--max-schema-depth=".length())));
+            } else if (arg.startsWith("--max-fields=")) {
+                options.getSchemaLimits().setMaxFieldsPerType(Integer.parseInt(arg.substring("--max-fields=".length())));
+            } else if (arg.startsWith("--max-schema-nodes=")) {
+                options.getSchemaLimits().setMaxNodes(Integer.parseInt(arg.substring("--max-schema-nodes=".length())));
+            } else if (arg.equals("--shared-schemas")) {
+                options.setSharedSchemas(true);
+            } else if (arg.equals("--no-prefilter")) {
+                options.setPrefilter(false);
+            } else if (arg.equals("--full-parse")) {
+                options.setLightweightParse(false);
+            } else if (arg.startsWith("--incremental-cache=")) {
+                options.setIncrementalCacheDirectory(Path.of(arg.substring("--incremental-cache=".length())));
+            } else if (arg.equals("--stream")) {
+                options.setStreamOutput(true);
+            } else if (arg.equals("--compact")) {
+                options.setCompactOutput(true);
+            } else if (arg.startsWith("--format=")) {
+                options.setReportFormat(ReportFormat.fromName(arg.substring("--format=".length())));
+            } else if (arg.startsWith("--classpath=")) {
+                options.setClasspath(Arrays.stream(arg.substring("--classpath=".length()).split(","))
+                        .filter(entry -> !entry.isBlank())
+                        .map(Path::of)
+                        .collect(Collectors.toList()));
+            } else if (arg.startsWith("--jar-index=")) {
+                options.setJarIndexFile(Path.of(arg.substring("--jar-index=".length())));
+            } else if (arg.equals("--jmx")) {
+                options.setJmx(true);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ykb.architecture.analyzer.core.model.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchEntry {
+    private String sourceRoot;
+    private String config;
+    private String output;
+}
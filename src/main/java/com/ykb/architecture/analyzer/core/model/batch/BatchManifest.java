@@ -0,0 +1,29 @@
+package com.ykb.architecture.analyzer.core.model.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Repositories to analyze in one batch run, read from a JSON or YAML file.
+ * Relative paths are resolved against the manifest's directory.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchManifest {
+    private List<BatchEntry> repositories;
+
+    /** Number of repositories analyzed at the same time; defaults to 2. */
+    private Integer parallelism;
+
+    /** Path of the summary report; defaults to batch_summary.json. */
+    private String summary;
+
+    /** When set, a dependency graph of the successfully analyzed repositories is written to this path. */
+    private String graph;
+}
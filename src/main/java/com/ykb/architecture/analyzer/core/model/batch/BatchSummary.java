@@ -0,0 +1,16 @@
+package com.ykb.architecture.analyzer.core.model.batch;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchSummary {
+    private int repositoryCount;
+    private int succeeded;
+    private int failed;
+    private long durationMillis;
+    private List<RepositoryResult> repositories;
+}
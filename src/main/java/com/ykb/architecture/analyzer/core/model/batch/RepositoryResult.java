@@ -0,0 +1,18 @@
+package com.ykb.architecture.analyzer.core.model.batch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RepositoryResult {
+    private String sourceRoot;
+    private String output;
+    private boolean success;
+    private long durationMillis;
+    private Integer providedEndpoints;
+    private Integer consumedClients;
+    private String error;
+}
@@ -0,0 +1,33 @@
+package com.ykb.architecture.analyzer.core.model.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ykb.architecture.analyzer.core.model.endpoint.ConsumedEndpoint;
+import com.ykb.architecture.analyzer.core.model.method.ApiCall;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analysis result of one source file as stored by incremental analysis.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileCacheEntry {
+    /** Source file path relative to the source root. */
+    private String file;
+    private List<ApiCall> providedEndpoints;
+    private List<ConsumedEndpoint> consumedEndpoints;
+
+    /** Files and type names read while analyzing the file, with their fingerprints at that time. */
+    private Map<String, String> dependencies;
+
+    /** Shared schemas referenced from the endpoints, only present when shared schemas are enabled. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Object> schemas;
+}
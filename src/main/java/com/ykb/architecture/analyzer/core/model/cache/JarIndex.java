@@ -0,0 +1,55 @@
+package com.ykb.architecture.analyzer.core.model.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persisted class index of dependency jars, as stored between runs.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JarIndex {
+    private int formatVersion;
+    private List<IndexedJar> jars;
+
+    /**
+     * Classes of one jar; the entry is reused while the jar's size and modification time are unchanged.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IndexedJar {
+        private String path;
+        private long size;
+        private long lastModified;
+        private List<IndexedClass> classes;
+    }
+
+    /**
+     * A class file of a jar with the annotations of the class and of its annotated fields.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IndexedClass {
+        /** Binary name, e.g. {@code com.example.Order$Line}. */
+        private String name;
+
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        private List<String> annotations;
+
+        /** Annotation types per field; fields without annotations are left out. */
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        private Map<String, List<String>> fieldAnnotations;
+    }
+}
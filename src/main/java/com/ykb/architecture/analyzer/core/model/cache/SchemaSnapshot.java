@@ -0,0 +1,84 @@
+package com.ykb.architecture.analyzer.core.model.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolved schemas of a run, as stored next to the incremental cache for the next run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaSnapshot {
+    private int formatVersion;
+
+    /** Hash of the config file and options the schemas were resolved with. */
+    private String runKey;
+
+    /** Files and type names the schemas depend on; entries refer to them by position. */
+    private List<Dependency> dependencies;
+
+    private List<Entry> schemas;
+    private List<Entry> enums;
+
+    /**
+     * One cached schema; it is restored only while every dependency still has the same fingerprint.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String key;
+
+        /**
+         * The schema in Smile encoding, decoded only when a run uses it.
+         * Absent for types that could not be resolved, or that are not enums.
+         */
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private byte[] schema;
+
+        /** Positions of the files and type names read while resolving the schema. */
+        private int[] dependencies;
+
+        /** Absent for enums, which are reused everywhere. */
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Shape shape;
+    }
+
+    /**
+     * A file or type name with its fingerprint at the time the snapshot was written.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Dependency {
+        private String key;
+        private String fingerprint;
+    }
+
+    /**
+     * What a schema build touched and how deep and wide it was, which decides where it can be reused.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shape {
+        private Set<String> visited;
+        private int depth;
+        private int height;
+        private boolean depthTruncated;
+        private int nodesAvailable;
+        private int nodes;
+        private boolean nodesTruncated;
+    }
+}
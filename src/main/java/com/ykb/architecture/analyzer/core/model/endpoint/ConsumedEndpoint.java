@@ -2,12 +2,16 @@ package com.ykb.architecture.analyzer.core.model.endpoint;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ykb.architecture.analyzer.core.model.method.ApiCall;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ConsumedEndpoint {
     @JsonProperty("clientOrganizationName")
     private String clientOrganizationName;
@@ -0,0 +1,19 @@
+package com.ykb.architecture.analyzer.core.model.graph;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A consumed API call matched to the provided endpoint that serves it.
+ */
+@Data
+@Builder
+public class DependencyEdge {
+    private String consumer;
+    private String provider;
+    private String httpMethod;
+    /** Path as declared by the consumer's Feign client. */
+    private String consumerPath;
+    /** Path template of the matched provided endpoint. */
+    private String providerPath;
+}
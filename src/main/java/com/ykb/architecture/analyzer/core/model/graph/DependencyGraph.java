@@ -0,0 +1,18 @@
+package com.ykb.architecture.analyzer.core.model.graph;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Calls between services, built by matching the consumed endpoints of many
+ * service reports to the provided endpoints of their target services.
+ */
+@Data
+@Builder
+public class DependencyGraph {
+    private List<String> services;
+    private List<DependencyEdge> edges;
+    private List<UnmatchedCall> unmatchedCalls;
+}
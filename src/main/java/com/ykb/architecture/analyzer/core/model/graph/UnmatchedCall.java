@@ -0,0 +1,24 @@
+package com.ykb.architecture.analyzer.core.model.graph;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A consumed API call for which no provided endpoint was found.
+ */
+@Data
+@Builder
+public class UnmatchedCall {
+    public enum Reason {
+        /** No report was found for the target application. */
+        UNKNOWN_SERVICE,
+        /** The target service has no endpoint with this method and path. */
+        NO_MATCHING_ENDPOINT
+    }
+
+    private String consumer;
+    private String targetApplication;
+    private String httpMethod;
+    private String path;
+    private Reason reason;
+}
@@ -1,13 +1,17 @@
 package com.ykb.architecture.analyzer.core.model.method;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Map;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ApiCall {
     private String httpMethod;
     @JsonProperty("path")
@@ -0,0 +1,19 @@
+package com.ykb.architecture.analyzer.core.model.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheMetrics {
+    private long hits;
+    private long misses;
+    private double hitRate;
+
+    public static CacheMetrics of(long hits, long misses) {
+        long total = hits + misses;
+        return new CacheMetrics(hits, misses, total == 0 ? 0 : Math.round(hits * 1000.0 / total) / 1000.0);
+    }
+}
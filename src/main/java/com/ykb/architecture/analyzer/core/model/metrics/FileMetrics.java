@@ -0,0 +1,18 @@
+package com.ykb.architecture.analyzer.core.model.metrics;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Source files by outcome. Skipped files were rejected by the pre-filter, reused files
+ * came from the incremental cache, failed files could not be parsed.
+ */
+@Data
+@Builder
+public class FileMetrics {
+    private long total;
+    private long parsed;
+    private long skipped;
+    private long reused;
+    private long failed;
+}
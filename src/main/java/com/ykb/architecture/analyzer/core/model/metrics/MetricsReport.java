@@ -0,0 +1,27 @@
+package com.ykb.architecture.analyzer.core.model.metrics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timings and counters of one analysis run, written next to the report.
+ */
+@Data
+@Builder
+public class MetricsReport {
+    private String sourceRoot;
+    private long durationMillis;
+    /** Wall time per phase in milliseconds, in the order the phases ran. */
+    private Map<String, Long> phases;
+    private FileMetrics files;
+    private int providedEndpoints;
+    private int consumedClients;
+    private ResolutionMetrics resolution;
+    private Map<String, CacheMetrics> caches;
+    private List<TimedEntry> slowestFiles;
+    /** Schema builds that took longest, including the nested types they resolved. */
+    private List<TimedEntry> slowestTypes;
+}
@@ -0,0 +1,15 @@
+package com.ykb.architecture.analyzer.core.model.metrics;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Request/response body resolutions. Failures are the schemas reported as {@code _unresolved}.
+ */
+@Data
+@Builder
+public class ResolutionMetrics {
+    private long calls;
+    private long failures;
+    private long durationMillis;
+}
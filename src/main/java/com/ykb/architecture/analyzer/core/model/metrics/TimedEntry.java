@@ -0,0 +1,13 @@
+package com.ykb.architecture.analyzer.core.model.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimedEntry {
+    private String name;
+    private long durationMicros;
+}
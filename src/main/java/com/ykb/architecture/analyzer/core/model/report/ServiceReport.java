@@ -2,14 +2,32 @@ package com.ykb.architecture.analyzer.core.model.report;
 
 import com.ykb.architecture.analyzer.core.model.endpoint.ConsumedEndpoint;
 import com.ykb.architecture.analyzer.core.model.method.ApiCall;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ServiceReport {
+    /** Parts of spring.application.name, split like Feign client names; only present when configured. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String organizationName;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String productName;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String applicationName;
+
     private List<ApiCall> providedEndpoints;
     private List<ConsumedEndpoint> consumedEndpoints;
+
+    /** Shared request/response schemas referenced with {@code $ref}, only present when enabled. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Object> schemas;
 } 
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.ykb.architecture.analyzer.core.model.server;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of an analysis request to the server. Without an output path the report is returned
+ * in the response; with one it is written to that file, which must lie below the server's output
+ * directory, and only the metrics are returned.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisRequest {
+    private String sourceRoot;
+    private String config;
+    private String output;
+}
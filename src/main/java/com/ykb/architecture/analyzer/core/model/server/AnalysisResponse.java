@@ -0,0 +1,19 @@
+package com.ykb.architecture.analyzer.core.model.server;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ykb.architecture.analyzer.core.model.metrics.MetricsReport;
+import com.ykb.architecture.analyzer.core.model.report.ServiceReport;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnalysisResponse {
+    private String sourceRoot;
+    private String output;
+    /** True if the repository was already resident and its caches were reused. */
+    private boolean warm;
+    private MetricsReport metrics;
+    private ServiceReport report;
+}
@@ -0,0 +1,18 @@
+package com.ykb.architecture.analyzer.core.model.server;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A repository kept resident by the server.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResidentRepository {
+    private String sourceRoot;
+    private String config;
+    private int analyses;
+    private Long lastDurationMillis;
+}
@@ -17,8 +17,8 @@ public abstract class AbstractEndpointParser<T> implements ParserStrategy<T> {
         try {
             compilationUnit.findAll(ClassOrInterfaceDeclaration.class).stream()
                     .filter(this::shouldParse)
-                    .map(this::parseClass)
-                    .forEach(endpoints::add);
+                    .map(this::parse)
+                    .forEach(endpoints::addAll);
         } catch (Exception e) {
             log.error("Error parsing file: {}", 
                 compilationUnit.getStorage().map(s -> s.getPath().toString()).orElse("unknown"), e);
@@ -33,6 +33,16 @@ public abstract class AbstractEndpointParser<T> implements ParserStrategy<T> {
                 .anyMatch(this::shouldParse);
     }
 
+    @Override
+    public boolean canParse(ClassOrInterfaceDeclaration classDeclaration) {
+        return shouldParse(classDeclaration);
+    }
+
+    @Override
+    public List<T> parse(ClassOrInterfaceDeclaration classDeclaration) {
+        return List.of(parseClass(classDeclaration));
+    }
+
     protected abstract boolean shouldParse(ClassOrInterfaceDeclaration classDeclaration);
     
     protected abstract T parseClass(ClassOrInterfaceDeclaration classDeclaration);
@@ -1,9 +1,29 @@
 package com.ykb.architecture.analyzer.parser.base;
 
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import java.util.List;
+import java.util.Set;
 
 public interface ParserStrategy<T> {
     List<T> parse(CompilationUnit compilationUnit);
     boolean canParse(CompilationUnit compilationUnit);
-} 
\ No newline at end of file
+
+    /**
+     * Whether a single type declaration is one this strategy parses.
+     */
+    boolean canParse(ClassOrInterfaceDeclaration classDeclaration);
+
+    /**
+     * Parses a type declaration accepted by {@link #canParse(ClassOrInterfaceDeclaration)}.
+     */
+    List<T> parse(ClassOrInterfaceDeclaration classDeclaration);
+
+    /**
+     * Simple names of the annotations a file must mention for this strategy to find anything in it.
+     * An empty set means every file has to be parsed.
+     */
+    default Set<String> getTriggerAnnotations() {
+        return Set.of();
+    }
+}
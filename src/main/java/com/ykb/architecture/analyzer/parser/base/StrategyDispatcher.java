@@ -0,0 +1,122 @@
+package com.ykb.architecture.analyzer.parser.base;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Walks a compilation unit once and hands each type declaration to the registered strategies
+ * whose trigger annotations it carries. Declarations are classified by the simple names of
+ * their annotations, so the cost per file does not grow with the number of strategies;
+ * strategies without trigger annotations see every declaration.
+ */
+@Slf4j
+public class StrategyDispatcher {
+    private final List<ParserStrategy<?>> strategies = new ArrayList<>();
+    private final Map<String, List<ParserStrategy<?>>> strategiesByAnnotation = new HashMap<>();
+    private final List<ParserStrategy<?>> unconditionalStrategies = new ArrayList<>();
+
+    public StrategyDispatcher register(ParserStrategy<?> strategy) {
+        strategies.add(strategy);
+        if (strategy.getTriggerAnnotations().isEmpty()) {
+            unconditionalStrategies.add(strategy);
+        }
+        for (String annotation : strategy.getTriggerAnnotations()) {
+            strategiesByAnnotation.computeIfAbsent(annotation, a -> new ArrayList<>()).add(strategy);
+        }
+        return this;
+    }
+
+    /**
+     * Union of the strategies' trigger annotations, or an empty set (parse everything)
+     * if any strategy needs to see every file.
+     */
+    public Set<String> getTriggerAnnotations() {
+        if (!unconditionalStrategies.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(strategiesByAnnotation.keySet());
+    }
+
+    /**
+     * Parses every type declaration of the unit, nested and local ones included, in source order.
+     */
+    public Result dispatch(CompilationUnit compilationUnit) {
+        Result result = new Result();
+        new DeclarationVisitor(compilationUnit).visit(compilationUnit, result);
+        return result;
+    }
+
+    private List<ParserStrategy<?>> candidates(ClassOrInterfaceDeclaration classDeclaration) {
+        List<ParserStrategy<?>> candidates = new ArrayList<>(unconditionalStrategies);
+        for (AnnotationExpr annotation : classDeclaration.getAnnotations()) {
+            List<ParserStrategy<?>> triggered = strategiesByAnnotation.get(annotation.getName().getIdentifier());
+            if (triggered == null) {
+                continue;
+            }
+            for (ParserStrategy<?> strategy : triggered) {
+                if (!candidates.contains(strategy)) {
+                    candidates.add(strategy);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private final class DeclarationVisitor extends VoidVisitorAdapter<Result> {
+        private final CompilationUnit compilationUnit;
+
+        DeclarationVisitor(CompilationUnit compilationUnit) {
+            this.compilationUnit = compilationUnit;
+        }
+
+        @Override
+        public void visit(ClassOrInterfaceDeclaration classDeclaration, Result result) {
+            if (!classDeclaration.getAnnotations().isEmpty() || !unconditionalStrategies.isEmpty()) {
+                for (ParserStrategy<?> strategy : candidates(classDeclaration)) {
+                    parse(strategy, classDeclaration, result);
+                }
+            }
+            super.visit(classDeclaration, result);
+        }
+
+        private void parse(ParserStrategy<?> strategy, ClassOrInterfaceDeclaration classDeclaration, Result result) {
+            try {
+                if (strategy.canParse(classDeclaration)) {
+                    result.add(strategy, strategy.parse(classDeclaration));
+                }
+            } catch (Exception e) {
+                log.error("Error parsing {} in file: {}", classDeclaration.getNameAsString(),
+                    compilationUnit.getStorage().map(s -> s.getPath().toString()).orElse("unknown"), e);
+            }
+        }
+    }
+
+    /**
+     * What each strategy found in one compilation unit.
+     */
+    public static class Result {
+        private final Map<ParserStrategy<?>, List<Object>> results = new IdentityHashMap<>();
+
+        private void add(ParserStrategy<?> strategy, List<?> found) {
+            if (!found.isEmpty()) {
+                results.computeIfAbsent(strategy, s -> new ArrayList<>()).addAll(found);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> List<T> get(ParserStrategy<T> strategy) {
+            return (List<T>) results.getOrDefault(strategy, List.of());
+        }
+    }
+}
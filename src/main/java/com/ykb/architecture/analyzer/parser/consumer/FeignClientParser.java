@@ -1,6 +1,5 @@
 package com.ykb.architecture.analyzer.parser.consumer;
 
-import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -10,6 +9,7 @@ import com.ykb.architecture.analyzer.core.model.endpoint.ConsumedEndpoint;
 import com.ykb.architecture.analyzer.core.model.method.ApiCall;
 import com.ykb.architecture.analyzer.parser.base.AbstractEndpointParser;
 import com.ykb.architecture.analyzer.parser.util.AnnotationParser;
+import com.ykb.architecture.analyzer.parser.util.ApplicationNames;
 import com.ykb.architecture.analyzer.parser.util.ConfigReader;
 import com.ykb.architecture.analyzer.parser.util.PathResolver;
 import com.ykb.architecture.analyzer.parser.util.TypeResolver;
@@ -35,9 +35,13 @@ public class FeignClientParser extends AbstractEndpointParser<ConsumedEndpoint>
     private final TypeResolver typeResolver;
     private final ConfigReader configReader;
 
-    public FeignClientParser(String sourceRoot, String configPath) {
-        this.typeResolver = new TypeResolver(sourceRoot);
-        this.configReader = new ConfigReader(configPath);
+    public FeignClientParser(TypeResolver typeResolver, String configPath) {
+        this(typeResolver, new ConfigReader(configPath));
+    }
+
+    public FeignClientParser(TypeResolver typeResolver, ConfigReader configReader) {
+        this.typeResolver = typeResolver;
+        this.configReader = configReader;
     }
 
     @Override
@@ -46,6 +50,11 @@ public class FeignClientParser extends AbstractEndpointParser<ConsumedEndpoint>
                AnnotationParser.hasAnnotation(classDeclaration, FEIGN_CLIENT);
     }
 
+    @Override
+    public Set<String> getTriggerAnnotations() {
+        return Set.of(FEIGN_CLIENT);
+    }
+
     @Override
     protected ConsumedEndpoint parseClass(ClassOrInterfaceDeclaration classDeclaration) {
         String clientName = getClientName(classDeclaration);
@@ -53,9 +62,9 @@ public class FeignClientParser extends AbstractEndpointParser<ConsumedEndpoint>
         List<ApiCall> apiCalls = parseApiCalls(classDeclaration, basePath);
 
         return ConsumedEndpoint.builder()
-                .clientApplicationName(extractApplicationName(clientName))
-                .clientOrganizationName(extractOrganizationName(clientName))
-                .clientProductName(extractProductName(clientName))
+                .clientApplicationName(ApplicationNames.applicationName(clientName))
+                .clientOrganizationName(ApplicationNames.organizationName(clientName))
+                .clientProductName(ApplicationNames.productName(clientName))
                 .apiCalls(apiCalls)
                 .build();
     }
@@ -262,64 +271,11 @@ public class FeignClientParser extends AbstractEndpointParser<ConsumedEndpoint>
                 .findFirst();
     }
 
-    private String extractOrganizationName(String clientName) {
-        if (clientName.startsWith("http") || clientName.startsWith("${") || !clientName.contains(".")) {
-            return null;
-        }
-        
-        String[] parts = clientName.split("\\.");
-        if (parts.length >= 3) {
-            return parts[0];  // Return just the organization name
-        }
-        
-        return null;
-    }
-
-    private String extractProductName(String clientName) {
-        if (clientName.startsWith("http") || clientName.startsWith("${") || !clientName.contains(".")) {
-            return null;
-        }
-        
-        String[] parts = clientName.split("\\.");
-        if (parts.length >= 3) {
-            return parts[1];  // Return just the product name
-        }
-        
-        return null;
-    }
-
-    // Yeni bir metod ekleyelim - clientApplicationName için
-    private String extractApplicationName(String clientName) {
-        if (clientName.startsWith("http") || clientName.startsWith("${") || !clientName.contains(".")) {
-            return clientName;  // URL veya parametrik değer ise aynen döndür
-        }
-        
-        String[] parts = clientName.split("\\.");
-        if (parts.length >= 3) {
-            return parts[2];  // Return just the application name
-        }
-        
-        return clientName;  // Eğer format uygun değilse tam ismi döndür
-    }
-
     @Override
-    public List<ConsumedEndpoint> parse(CompilationUnit compilationUnit) {
-        List<ConsumedEndpoint> endpoints = new ArrayList<>();
-        
-        try {
-            compilationUnit.findAll(ClassOrInterfaceDeclaration.class).stream()
-                    .filter(this::shouldParse)
-                    .map(this::parseClass)
-                    .forEach(endpoint -> {
-                        log.debug("Found FeignClient: {} with {} API calls", 
-                            endpoint.getClientApplicationName(), endpoint.getApiCalls().size());
-                        endpoints.add(endpoint);
-                    });
-        } catch (Exception e) {
-            log.error("Error parsing file: {}", 
-                compilationUnit.getStorage().map(s -> s.getPath().toString()).orElse("unknown"), e);
-        }
-        
-        return endpoints;
+    public List<ConsumedEndpoint> parse(ClassOrInterfaceDeclaration classDeclaration) {
+        ConsumedEndpoint endpoint = parseClass(classDeclaration);
+        log.debug("Found FeignClient: {} with {} API calls",
+            endpoint.getClientApplicationName(), endpoint.getApiCalls().size());
+        return List.of(endpoint);
     }
 } 
\ No newline at end of file
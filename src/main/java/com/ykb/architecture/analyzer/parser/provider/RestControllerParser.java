@@ -1,6 +1,5 @@
 package com.ykb.architecture.analyzer.parser.provider;
 
-import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -33,30 +32,20 @@ public class RestControllerParser extends AbstractEndpointParser<ApiCall> {
 
     private final TypeResolver typeResolver;
 
-    public RestControllerParser(String sourceRoot) {
-        this.typeResolver = new TypeResolver(sourceRoot);
+    public RestControllerParser(TypeResolver typeResolver) {
+        this.typeResolver = typeResolver;
     }
 
+    /**
+     * A controller yields all of its endpoints, not just one per class.
+     */
     @Override
-    public List<ApiCall> parse(CompilationUnit compilationUnit) {
-        List<ApiCall> endpoints = new ArrayList<>();
-        
-        try {
-            compilationUnit.findAll(ClassOrInterfaceDeclaration.class).stream()
-                    .filter(this::shouldParse)
-                    .forEach(classDeclaration -> {
-                        String basePath = getBasePath(classDeclaration);
-                        List<ApiCall> apiCalls = parseApiCalls(classDeclaration, basePath);
-                        log.debug("Found {} endpoints in controller {}", 
-                            apiCalls.size(), classDeclaration.getNameAsString());
-                        endpoints.addAll(apiCalls);
-                    });
-        } catch (Exception e) {
-            log.error("Error parsing file: {}", 
-                compilationUnit.getStorage().map(s -> s.getPath().toString()).orElse("unknown"), e);
-        }
-        
-        return endpoints;
+    public List<ApiCall> parse(ClassOrInterfaceDeclaration classDeclaration) {
+        String basePath = getBasePath(classDeclaration);
+        List<ApiCall> apiCalls = parseApiCalls(classDeclaration, basePath);
+        log.debug("Found {} endpoints in controller {}",
+            apiCalls.size(), classDeclaration.getNameAsString());
+        return apiCalls;
     }
 
     /**
@@ -71,6 +60,11 @@ public class RestControllerParser extends AbstractEndpointParser<ApiCall> {
                     AnnotationParser.hasAnnotation(m, "ResponseBody")));
     }
 
+    @Override
+    public Set<String> getTriggerAnnotations() {
+        return Set.of(REST_CONTROLLER, CONTROLLER);
+    }
+
     private String getBasePath(ClassOrInterfaceDeclaration classDeclaration) {
         return AnnotationParser.getAnnotationValue(classDeclaration, REQUEST_MAPPING, "value")
                 .or(() -> AnnotationParser.getAnnotationValue(classDeclaration, REQUEST_MAPPING, "path"))
@@ -0,0 +1,50 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Splits application names of the form {@code organization.product.application}.
+ * Used for Feign client names and for the analyzed service's own name.
+ */
+@UtilityClass
+public class ApplicationNames {
+
+    public String organizationName(String clientName) {
+        if (clientName.startsWith("http") || clientName.startsWith("${") || !clientName.contains(".")) {
+            return null;
+        }
+        
+        String[] parts = clientName.split("\\.");
+        if (parts.length >= 3) {
+            return parts[0];  // Return just the organization name
+        }
+        
+        return null;
+    }
+
+    public String productName(String clientName) {
+        if (clientName.startsWith("http") || clientName.startsWith("${") || !clientName.contains(".")) {
+            return null;
+        }
+        
+        String[] parts = clientName.split("\\.");
+        if (parts.length >= 3) {
+            return parts[1];  // Return just the product name
+        }
+        
+        return null;
+    }
+
+    public String applicationName(String clientName) {
+        if (clientName.startsWith("http") || clientName.startsWith("${") || !clientName.contains(".")) {
+            return clientName;  // URL veya parametrik değer ise aynen döndür
+        }
+        
+        String[] parts = clientName.split("\\.");
+        if (parts.length >= 3) {
+            return parts[2];  // Return just the application name
+        }
+        
+        return clientName;  // Eğer format uygun değilse tam ismi döndür
+    }
+}
@@ -0,0 +1,356 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Index of the types declared in the analyzed sources.
+ * Maps fully qualified and simple names to the declaring file, so each lookup is a
+ * map access instead of a directory search. Declarations are read from the shared
+ * compilation unit cache, so a file is only parsed again after it was evicted.
+ */
+@Slf4j
+public class ClassIndex {
+    private final TypeResolutionContext context;
+
+    private final Map<String, Path> filesByQualifiedName = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> qualifiedNamesBySimpleName = new ConcurrentHashMap<>();
+    private final Map<Path, List<String>> typesByFile = new ConcurrentHashMap<>();
+    private final Map<String, Optional<TypeDeclaration<?>>> jarDeclarations = new ConcurrentHashMap<>();
+    private volatile boolean built;
+
+    public ClassIndex(TypeResolutionContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Indexes the types declared in a source file. Safe to call from several threads.
+     */
+    public void register(Path file) {
+        try {
+            register(file, Files.readString(file, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.warn("Could not index file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Indexes the types declared in already loaded source text of a file.
+     */
+    public void register(Path file, CharSequence source) {
+        JavaSourceScanner.ScannedSource scanned = JavaSourceScanner.scan(source);
+        List<String> declared = new ArrayList<>();
+        for (JavaSourceScanner.ScannedType type : scanned.getTypes()) {
+            String qualifiedName = scanned.qualify(type.getName());
+            declared.add(qualifiedName);
+            // Duplicate declarations keep the first file in path order, independent of indexing order
+            filesByQualifiedName.merge(qualifiedName, file, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            qualifiedNamesBySimpleName.compute(simpleName(qualifiedName), (key, candidates) -> {
+                List<String> updated = candidates != null ? candidates : new ArrayList<>();
+                updated.add(qualifiedName);
+                return updated;
+            });
+        }
+        typesByFile.put(file, declared);
+    }
+
+    /**
+     * Removes the types declared in a file, e.g. before it is registered again after a change.
+     * Call {@link #markBuilt()} once all changes are applied.
+     */
+    public void unregister(Path file) {
+        List<String> declared = typesByFile.remove(file);
+        if (declared == null) {
+            return;
+        }
+        for (String qualifiedName : declared) {
+            Optional<Path> otherFile = typesByFile.entrySet().stream()
+                    .filter(entry -> entry.getValue().contains(qualifiedName))
+                    .map(Map.Entry::getKey)
+                    .min(Path::compareTo);
+            if (otherFile.isPresent()) {
+                // Another file declares the same name; it takes over the declaration
+                filesByQualifiedName.put(qualifiedName, otherFile.get());
+                continue;
+            }
+            filesByQualifiedName.remove(qualifiedName);
+            qualifiedNamesBySimpleName.computeIfPresent(simpleName(qualifiedName), (key, candidates) -> {
+                List<String> updated = new ArrayList<>(candidates);
+                updated.removeIf(qualifiedName::equals);
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    /**
+     * Fully qualified names of the types declared in a registered file.
+     */
+    public List<String> getDeclaredTypes(Path file) {
+        return typesByFile.getOrDefault(file, List.of());
+    }
+
+    /**
+     * Marks the index as complete; ambiguous simple names are ordered so lookups are deterministic.
+     */
+    public void markBuilt() {
+        qualifiedNamesBySimpleName.replaceAll((name, candidates) -> candidates.stream()
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList()));
+        built = true;
+        log.info("Indexed {} types", filesByQualifiedName.size());
+    }
+
+    public void build(Collection<Path> files) {
+        files.forEach(this::register);
+        markBuilt();
+    }
+
+    /**
+     * Builds the index from the source roots if nobody registered files before the first lookup.
+     */
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        synchronized (this) {
+            if (built) {
+                return;
+            }
+            for (Path root : context.getSourceRoots()) {
+                try (Stream<Path> paths = Files.walk(root)) {
+                    paths.filter(path -> path.toString().endsWith(".java")).forEach(this::register);
+                } catch (IOException e) {
+                    log.warn("Could not index source root {}: {}", root, e.getMessage());
+                }
+            }
+            markBuilt();
+        }
+    }
+
+    /**
+     * Resolves a fully qualified or simple name to a fully qualified name.
+     * Qualified names must match exactly; when a simple name is declared in
+     * several packages, the alphabetically first one wins.
+     */
+    public Optional<String> qualify(String name) {
+        ensureBuilt();
+        DependencyRecorder.recordType(name);
+        if (filesByQualifiedName.containsKey(name)) {
+            return Optional.of(name);
+        }
+        if (name.indexOf('.') >= 0) {
+            return Optional.empty();
+        }
+        List<String> candidates = qualifiedNamesBySimpleName.getOrDefault(simpleName(name), List.of());
+        if (candidates.size() > 1) {
+            log.debug("Ambiguous type name {}, candidates: {}", name, candidates);
+        }
+        return candidates.stream().findFirst();
+    }
+
+    /**
+     * Resolves a name as it appears in the given compilation unit, using its
+     * imports and package to pick between types that share a simple name.
+     */
+    public Optional<String> qualify(String name, CompilationUnit usedIn) {
+        ensureBuilt();
+        DependencyRecorder.recordType(name);
+        if (filesByQualifiedName.containsKey(name) || name.indexOf('.') >= 0 || usedIn == null) {
+            return qualify(name);
+        }
+
+        List<String> candidates = qualifiedNamesBySimpleName.getOrDefault(simpleName(name), List.of());
+        if (candidates.size() <= 1) {
+            return candidates.stream().findFirst();
+        }
+
+        // Explicit single-type imports
+        for (ImportDeclaration importDeclaration : usedIn.getImports()) {
+            if (!importDeclaration.isAsterisk() && !importDeclaration.isStatic()
+                    && candidates.contains(importDeclaration.getNameAsString())) {
+                return Optional.of(importDeclaration.getNameAsString());
+            }
+        }
+
+        // Same package
+        String packageName = usedIn.getPackageDeclaration().map(p -> p.getNameAsString()).orElse("");
+        String samePackage = packageName.isEmpty() ? name : packageName + "." + name;
+        if (candidates.contains(samePackage)) {
+            return Optional.of(samePackage);
+        }
+
+        // Wildcard imports
+        for (ImportDeclaration importDeclaration : usedIn.getImports()) {
+            String wildcardCandidate = importDeclaration.getNameAsString() + "." + name;
+            if (importDeclaration.isAsterisk() && candidates.contains(wildcardCandidate)) {
+                return Optional.of(wildcardCandidate);
+            }
+        }
+
+        log.debug("Ambiguous type name {} in {}, candidates: {}", name,
+            usedIn.getStorage().map(s -> s.getPath().toString()).orElse("unknown"), candidates);
+        return candidates.stream().findFirst();
+    }
+
+    /**
+     * Fully qualified names of all indexed types sharing the simple name of the given name, sorted.
+     */
+    public List<String> getCandidates(String name) {
+        ensureBuilt();
+        return qualifiedNamesBySimpleName.getOrDefault(simpleName(name), List.of());
+    }
+
+    public Optional<Path> findFile(String qualifiedName) {
+        ensureBuilt();
+        return Optional.ofNullable(filesByQualifiedName.get(qualifiedName));
+    }
+
+    /**
+     * Finds a class of the sources or, failing that, a class of the dependency jars by its qualified name.
+     */
+    public Optional<ClassOrInterfaceDeclaration> findClass(String name) {
+        return findType(name)
+                .filter(TypeDeclaration::isClassOrInterfaceDeclaration)
+                .map(TypeDeclaration::asClassOrInterfaceDeclaration);
+    }
+
+    public Optional<ClassOrInterfaceDeclaration> findClass(String name, CompilationUnit usedIn) {
+        Optional<String> qualifiedName = qualify(name, usedIn);
+        Optional<TypeDeclaration<?>> type = qualifiedName.isPresent()
+                ? qualifiedName.flatMap(this::findDeclaration)
+                : qualifyInJars(name, usedIn).flatMap(this::findJarDeclaration);
+        return type
+                .filter(TypeDeclaration::isClassOrInterfaceDeclaration)
+                .map(TypeDeclaration::asClassOrInterfaceDeclaration);
+    }
+
+    /**
+     * Finds an enum of the sources or of the dependency jars, like {@link #findClass(String)}.
+     */
+    public Optional<EnumDeclaration> findEnum(String name) {
+        return findType(name)
+                .filter(TypeDeclaration::isEnumDeclaration)
+                .map(TypeDeclaration::asEnumDeclaration);
+    }
+
+    private Optional<TypeDeclaration<?>> findType(String name) {
+        Optional<String> qualifiedName = qualify(name);
+        if (qualifiedName.isPresent()) {
+            return qualifiedName.flatMap(this::findDeclaration);
+        }
+        return name.indexOf('.') >= 0 ? findJarDeclaration(name) : Optional.empty();
+    }
+
+    /**
+     * Resolves a name used in a compilation unit against the dependency jars: qualified names as
+     * they are, simple names through single-type imports, the unit's package and wildcard imports.
+     */
+    private Optional<String> qualifyInJars(String name, CompilationUnit usedIn) {
+        JarClassIndex jarClassIndex = context.getJarClassIndex();
+        if (jarClassIndex == null) {
+            return Optional.empty();
+        }
+        if (name.indexOf('.') >= 0 || usedIn == null) {
+            return Optional.of(name).filter(jarClassIndex::contains);
+        }
+        List<String> candidates = new ArrayList<>();
+        for (ImportDeclaration importDeclaration : usedIn.getImports()) {
+            if (!importDeclaration.isAsterisk() && !importDeclaration.isStatic()
+                    && importDeclaration.getNameAsString().endsWith("." + name)) {
+                candidates.add(importDeclaration.getNameAsString());
+            }
+        }
+        String packageName = usedIn.getPackageDeclaration().map(p -> p.getNameAsString()).orElse("");
+        candidates.add(packageName.isEmpty() ? name : packageName + "." + name);
+        for (ImportDeclaration importDeclaration : usedIn.getImports()) {
+            if (importDeclaration.isAsterisk() && !importDeclaration.isStatic()) {
+                candidates.add(importDeclaration.getNameAsString() + "." + name);
+            }
+        }
+        return candidates.stream().filter(jarClassIndex::contains).findFirst();
+    }
+
+    /**
+     * Declaration of a jar class, parsed from the source the jar index derives from its class file.
+     */
+    private Optional<TypeDeclaration<?>> findJarDeclaration(String qualifiedName) {
+        JarClassIndex jarClassIndex = context.getJarClassIndex();
+        if (jarClassIndex == null || !jarClassIndex.contains(qualifiedName)) {
+            return Optional.empty();
+        }
+        return jarDeclarations.computeIfAbsent(qualifiedName, name -> jarClassIndex.readDeclarationSource(name)
+                .flatMap(source -> {
+                    try {
+                        return findMember(context.parseSource(source), name);
+                    } catch (Exception e) {
+                        log.warn("Could not read jar class {}: {}", name, e.getMessage());
+                        return Optional.empty();
+                    }
+                }));
+    }
+
+    private Optional<TypeDeclaration<?>> findDeclaration(String qualifiedName) {
+        Path file = filesByQualifiedName.get(qualifiedName);
+        if (file == null) {
+            return Optional.empty();
+        }
+
+        return parse(file).flatMap(compilationUnit -> findMember(compilationUnit, qualifiedName));
+    }
+
+    private static Optional<TypeDeclaration<?>> findMember(CompilationUnit compilationUnit, String qualifiedName) {
+        // Walk from the top-level type down to nested members
+        String packageName = compilationUnit.getPackageDeclaration().map(p -> p.getNameAsString()).orElse("");
+        String relativeName = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+        String[] names = relativeName.split("\\.");
+
+        Optional<TypeDeclaration<?>> current = compilationUnit.getTypes().stream()
+                .filter(t -> t.getNameAsString().equals(names[0]))
+                .<TypeDeclaration<?>>map(t -> t)
+                .findFirst();
+        for (int i = 1; i < names.length && current.isPresent(); i++) {
+            String memberName = names[i];
+            current = current.get().getMembers().stream()
+                    .filter(BodyDeclaration::isTypeDeclaration)
+                    .<TypeDeclaration<?>>map(BodyDeclaration::asTypeDeclaration)
+                    .filter(t -> t.getNameAsString().equals(memberName))
+                    .findFirst();
+        }
+
+        return current;
+    }
+
+    private Optional<CompilationUnit> parse(Path file) {
+        try {
+            log.debug("Trying to parse file: {}", file.toAbsolutePath());
+            return Optional.of(context.getCompilationUnit(file));
+        } catch (Exception e) {
+            log.warn("Could not parse file {}: {}", file.toAbsolutePath(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String simpleName(String name) {
+        int lastDot = name.lastIndexOf('.');
+        return lastDot < 0 ? name : name.substring(lastDot + 1);
+    }
+}
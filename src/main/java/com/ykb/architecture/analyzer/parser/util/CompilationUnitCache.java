@@ -0,0 +1,204 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.resolution.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, least-recently-used cache of parsed compilation units keyed by file.
+ * Shared by the main scan, the class index and the source type solvers, so a
+ * file referenced from many endpoints is parsed once per run while it stays cached.
+ */
+@Slf4j
+public class CompilationUnitCache {
+
+    @FunctionalInterface
+    public interface Parser {
+        CompilationUnit parse(Path path) throws IOException;
+    }
+
+    private final int maxSize;
+    private final Map<Path, CompilationUnit> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Paths the type solvers probed without finding a file. Kept apart from the
+     * parsed units so negative lookups cannot evict them.
+     */
+    private final Set<Path> missingFiles = ConcurrentHashMap.newKeySet();
+
+    public CompilationUnitCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, CompilationUnit> eldest) {
+                if (size() > CompilationUnitCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached unit for the file or parses and caches it.
+     * Parsing happens outside the cache lock; if two threads race, the first result is kept.
+     */
+    public CompilationUnit getOrParse(Path path, Parser parser) throws IOException {
+        Path key = key(path);
+        DependencyRecorder.recordFile(key);
+        CompilationUnit cached = get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        CompilationUnit parsed = parser.parse(path);
+        synchronized (entries) {
+            CompilationUnit existing = entries.putIfAbsent(key, parsed);
+            return existing != null ? existing : parsed;
+        }
+    }
+
+    /**
+     * True if the file's unit is cached. Neither counted as a lookup nor recorded as a dependency.
+     */
+    public boolean isCached(Path path) {
+        return get(key(path)) != null;
+    }
+
+    public void invalidate(Path path) {
+        synchronized (entries) {
+            entries.remove(key(path));
+        }
+        missingFiles.remove(key(path));
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        missingFiles.clear();
+    }
+
+    private CompilationUnit get(Path key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private static Path key(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void logStatistics() {
+        long total = getHits() + getMisses();
+        log.info("Compilation unit cache: {} hits, {} misses ({}% hit rate), {} evictions, {}/{} entries",
+            getHits(), getMisses(), total == 0 ? 0 : getHits() * 100 / total, getEvictions(), size(), maxSize);
+    }
+
+    /**
+     * View of this cache in the form JavaParserTypeSolver expects for its parsed-files cache.
+     * Files the solver looks up are parsed with the given parser, so they are parsed the same
+     * way as the scanned files; the solver parses a file itself only if that parser fails.
+     */
+    public Cache<Path, Optional<CompilationUnit>> asTypeSolverCache(Parser parser) {
+        return new Cache<>() {
+            @Override
+            public void put(Path path, Optional<CompilationUnit> value) {
+                Path key = key(path);
+                DependencyRecorder.recordFile(key);
+                if (value.isEmpty()) {
+                    missingFiles.add(key);
+                    return;
+                }
+                misses.increment();
+                synchronized (entries) {
+                    entries.putIfAbsent(key, value.get());
+                }
+            }
+
+            @Override
+            public Optional<Optional<CompilationUnit>> get(Path path) {
+                Path key = key(path);
+                DependencyRecorder.recordFile(key);
+                if (missingFiles.contains(key)) {
+                    return Optional.of(Optional.empty());
+                }
+                CompilationUnit cached = CompilationUnitCache.this.get(key);
+                if (cached != null) {
+                    hits.increment();
+                    return Optional.of(Optional.of(cached));
+                }
+                if (!Files.isRegularFile(key)) {
+                    return Optional.empty();
+                }
+                try {
+                    return Optional.of(Optional.of(getOrParse(key, parser)));
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Leaving {} to the type solver: {}", key, e.getMessage());
+                    return Optional.empty();
+                }
+            }
+
+            @Override
+            public void remove(Path path) {
+                invalidate(path);
+            }
+
+            @Override
+            public void removeAll() {
+                clear();
+            }
+
+            @Override
+            public boolean contains(Path path) {
+                Path key = key(path);
+                DependencyRecorder.recordFile(key);
+                return missingFiles.contains(key) || CompilationUnitCache.this.get(key) != null;
+            }
+
+            @Override
+            public long size() {
+                return CompilationUnitCache.this.size() + missingFiles.size();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return size() == 0;
+            }
+        };
+    }
+}
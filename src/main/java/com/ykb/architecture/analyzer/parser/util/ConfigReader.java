@@ -66,14 +66,31 @@ public class ConfigReader {
         return Optional.ofNullable(value).map(Object::toString);
     }
 
+    /**
+     * Returns spring.application.name of the analyzed service, if configured.
+     */
+    public Optional<String> getApplicationName() {
+        Object current = config;
+        for (String part : new String[]{"spring", "application", "name"}) {
+            if (!(current instanceof Map)) {
+                return Optional.empty();
+            }
+            Map<?, ?> currentMap = (Map<?, ?>) current;
+            String matchingKey = findKeyIgnoreCase(currentMap, part);
+            current = matchingKey != null ? currentMap.get(matchingKey) : null;
+        }
+        return Optional.ofNullable(current).map(Object::toString);
+    }
+
     /**
      * Finds a key in the map ignoring case
      * @param map The map to search in
      * @param searchKey The key to search for
      * @return The actual key from the map, or null if not found
      */
-    private String findKeyIgnoreCase(Map<String, Object> map, String searchKey) {
+    private String findKeyIgnoreCase(Map<?, ?> map, String searchKey) {
         return map.keySet().stream()
+                .map(String::valueOf)
                 .filter(key -> key.equalsIgnoreCase(searchKey))
                 .findFirst()
                 .orElse(null);
@@ -0,0 +1,69 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Records, per thread, which source files and type names an analysis step looked at.
+ * Incremental analysis uses the recorded keys to decide whether a cached result is
+ * still valid. Recording only happens between {@link #begin()} and {@link #end()};
+ * nested recordings are merged into the enclosing one when they end.
+ */
+@UtilityClass
+public class DependencyRecorder {
+    public static final String FILE_PREFIX = "file:";
+    public static final String TYPE_PREFIX = "type:";
+
+    private static final ThreadLocal<Deque<Set<String>>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public static void begin() {
+        frames.get().push(new HashSet<>());
+    }
+
+    /**
+     * Ends the innermost recording and returns its keys.
+     */
+    public static Set<String> end() {
+        Deque<Set<String>> stack = frames.get();
+        Set<String> recorded = stack.pop();
+        if (!stack.isEmpty()) {
+            stack.peek().addAll(recorded);
+        }
+        return recorded;
+    }
+
+    public static boolean isRecording() {
+        return !frames.get().isEmpty();
+    }
+
+    public static void recordFile(Path path) {
+        record(FILE_PREFIX + path.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Records a type lookup by name, qualified or simple, whether it succeeded or not.
+     */
+    public static void recordType(String name) {
+        record(TYPE_PREFIX + name);
+    }
+
+    public static void recordAll(Collection<String> keys) {
+        Deque<Set<String>> stack = frames.get();
+        if (!stack.isEmpty()) {
+            stack.peek().addAll(keys);
+        }
+    }
+
+    private static void record(String key) {
+        Deque<Set<String>> stack = frames.get();
+        if (!stack.isEmpty()) {
+            stack.peek().add(key);
+        }
+    }
+}
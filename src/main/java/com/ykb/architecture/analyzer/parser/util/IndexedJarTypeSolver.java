@@ -0,0 +1,94 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.javassistmodel.JavassistFactory;
+import javassist.ClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Optional;
+
+/**
+ * Solves types from dependency jars through a {@link JarClassIndex}. Unlike JavaParser's
+ * {@code JarTypeSolver}, which lists every jar up front, a missing type is answered from the
+ * index and a jar is only read when one of its classes is actually resolved.
+ * Like the other solvers of a context, each thread has an instance of its own.
+ */
+@Slf4j
+public class IndexedJarTypeSolver implements TypeSolver {
+    private final JarClassIndex index;
+    private final ClassPool classPool = new ClassPool(false);
+    private TypeSolver parent;
+
+    public IndexedJarTypeSolver(JarClassIndex index) {
+        this.index = index;
+        classPool.appendClassPath(new IndexClassPath());
+        classPool.appendSystemPath();
+    }
+
+    /**
+     * Feeds class files from the index to Javassist, which names nested classes with {@code $}.
+     */
+    private final class IndexClassPath implements ClassPath {
+        @Override
+        public InputStream openClassfile(String className) throws NotFoundException {
+            try {
+                InputStream input = index.openClassFile(className.replace('$', '.'));
+                if (input == null) {
+                    throw new NotFoundException(className);
+                }
+                return input;
+            } catch (IOException e) {
+                throw new NotFoundException(className + ": " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public URL find(String className) {
+            String canonicalName = className.replace('$', '.');
+            return index.findJar(canonicalName).map(jar -> {
+                try {
+                    return new URL("jar:" + jar.toUri() + "!/" + className.replace('.', '/') + ".class");
+                } catch (MalformedURLException e) {
+                    return null;
+                }
+            }).orElse(null);
+        }
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent) {
+        if (parent == this) {
+            throw new IllegalStateException("The parent of this TypeSolver cannot be itself.");
+        }
+        this.parent = parent;
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        Optional<String> binaryName = index.findBinaryName(name);
+        if (binaryName.isEmpty()) {
+            return SymbolReference.unsolved();
+        }
+        try {
+            CtClass ctClass = classPool.get(binaryName.get());
+            return SymbolReference.solved(JavassistFactory.toTypeDeclaration(ctClass, getRoot()));
+        } catch (NotFoundException | RuntimeException e) {
+            log.debug("Could not load indexed class {}: {}", name, e.getMessage());
+            return SymbolReference.unsolved();
+        }
+    }
+}
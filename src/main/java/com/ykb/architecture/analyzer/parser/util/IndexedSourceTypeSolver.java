@@ -0,0 +1,57 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+/**
+ * Puts the {@link ClassIndex} in front of a source root's solver. JavaParser's
+ * {@code JavaParserTypeSolver} looks for a name it cannot find as a file among the nested
+ * types of its package, which parses every file of that package directory. The symbol
+ * solver asks for many such names, e.g. {@code List} as a type of the current package,
+ * so names the index does not know in this source root are answered without asking the solver.
+ */
+public class IndexedSourceTypeSolver implements TypeSolver {
+    private final Path sourceRoot;
+    private final TypeSolver sourceSolver;
+    private final Supplier<ClassIndex> classIndex;
+    private TypeSolver parent;
+
+    /**
+     * @param classIndex the index of the context; it is created after the solvers
+     */
+    public IndexedSourceTypeSolver(Path sourceRoot, TypeSolver sourceSolver, Supplier<ClassIndex> classIndex) {
+        this.sourceRoot = sourceRoot.toAbsolutePath().normalize();
+        this.sourceSolver = sourceSolver;
+        this.classIndex = classIndex;
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent) {
+        if (parent == this) {
+            throw new IllegalStateException("The parent of this TypeSolver cannot be itself.");
+        }
+        this.parent = parent;
+        // Declarations of the source solver resolve their own references through the root
+        sourceSolver.setParent(parent);
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        boolean declaredHere = classIndex.get().findFile(name)
+                .map(file -> file.toAbsolutePath().normalize().startsWith(sourceRoot))
+                .orElse(false);
+        if (!declaredHere) {
+            return SymbolReference.unsolved();
+        }
+        return sourceSolver.tryToSolveType(name);
+    }
+}
@@ -0,0 +1,522 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.ykb.architecture.analyzer.core.model.cache.JarIndex;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.BadBytecode;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.Descriptor;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.SignatureAttribute;
+import javassist.bytecode.annotation.Annotation;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Index of the classes in dependency jars, such as shared DTO libraries. Maps each class to
+ * its jar entry together with the annotations of the class and its fields, so the solver can
+ * tell whether a class exists without opening any jar. Jars are opened on the first class
+ * actually read from them, and only that class file is read.
+ * <p>
+ * The index can be persisted; a later run rescans only jars whose size or modification time
+ * changed. It is immutable once loaded and may be shared by several analyses.
+ */
+@Slf4j
+public class JarClassIndex implements Closeable {
+    private static final int FORMAT_VERSION = 1;
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper(new SmileFactory())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    /**
+     * Where a class is found; classes are keyed by their canonical name, e.g. {@code com.example.Order.Line}.
+     */
+    private static final class Location {
+        private final int jar;
+        private final JarIndex.IndexedClass indexedClass;
+
+        private Location(int jar, JarIndex.IndexedClass indexedClass) {
+            this.jar = jar;
+            this.indexedClass = indexedClass;
+        }
+    }
+
+    private final List<Path> jars;
+    private final Map<String, Location> classes;
+    private final String fingerprint;
+    private final Map<Integer, ZipFile> openJars = new ConcurrentHashMap<>();
+
+    private JarClassIndex(List<JarIndex.IndexedJar> indexedJars) {
+        this.jars = new ArrayList<>();
+        this.classes = new HashMap<>();
+        StringBuilder stamps = new StringBuilder();
+        for (JarIndex.IndexedJar indexedJar : indexedJars) {
+            int jar = jars.size();
+            jars.add(Path.of(indexedJar.getPath()));
+            stamps.append(indexedJar.getPath()).append(':').append(indexedJar.getSize())
+                    .append(':').append(indexedJar.getLastModified()).append('\n');
+            for (JarIndex.IndexedClass indexedClass : indexedJar.getClasses()) {
+                // The first jar on the class path wins, as with a class loader
+                classes.putIfAbsent(canonicalName(indexedClass.getName()), new Location(jar, indexedClass));
+            }
+        }
+        this.fingerprint = sha256(stamps.toString());
+    }
+
+    /**
+     * Indexes the given jars and all jars below the given directories, e.g. a local Maven repository.
+     * Jars are searched in the given order; the jars of a directory in path order.
+     *
+     * @param indexFile where the index is kept between runs, or null to build it in memory only
+     */
+    public static JarClassIndex load(List<Path> classpath, Path indexFile) {
+        long start = System.nanoTime();
+        List<Path> jarFiles = findJars(classpath);
+        Map<String, JarIndex.IndexedJar> persisted = indexFile == null ? Map.of() : readIndex(indexFile);
+
+        AtomicInteger rescanned = new AtomicInteger();
+        List<JarIndex.IndexedJar> indexedJars = jarFiles.parallelStream()
+                .map(jar -> {
+                    JarIndex.IndexedJar known = persisted.get(jar.toString());
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+                        if (known != null && known.getSize() == attributes.size()
+                                && known.getLastModified() == attributes.lastModifiedTime().toMillis()) {
+                            return known;
+                        }
+                        rescanned.incrementAndGet();
+                        return indexJar(jar, attributes);
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Could not index jar {}: {}", jar, e.getMessage());
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        if (indexFile != null && (rescanned.get() > 0 || persisted.size() != indexedJars.size())) {
+            writeIndex(indexFile, indexedJars);
+        }
+        JarClassIndex index = new JarClassIndex(indexedJars);
+        log.info("Indexed {} classes in {} jars ({} scanned) in {} ms", index.classes.size(), indexedJars.size(),
+            rescanned.get(), (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    /**
+     * Binary name of an indexed class, as the class file names it, e.g. {@code com.example.Order$Line}.
+     */
+    public Optional<String> findBinaryName(String canonicalName) {
+        Location location = classes.get(canonicalName);
+        return location == null ? Optional.empty() : Optional.of(location.indexedClass.getName());
+    }
+
+    /**
+     * The jar holding an indexed class.
+     */
+    public Optional<Path> findJar(String canonicalName) {
+        Location location = classes.get(canonicalName);
+        return location == null ? Optional.empty() : Optional.of(jars.get(location.jar));
+    }
+
+    /**
+     * Opens the class file of an indexed class, or returns null if it is not indexed.
+     */
+    public InputStream openClassFile(String canonicalName) throws IOException {
+        Location location = classes.get(canonicalName);
+        if (location == null) {
+            return null;
+        }
+        ZipFile zipFile;
+        try {
+            zipFile = openJars.computeIfAbsent(location.jar, this::openJar);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        ZipEntry entry = zipFile.getEntry(location.indexedClass.getName().replace('.', '/') + CLASS_SUFFIX);
+        return entry == null ? null : zipFile.getInputStream(entry);
+    }
+
+    /**
+     * Java source declaring the fields and annotations of an indexed class, with fully qualified
+     * types, so the class can be read like a class of the analyzed sources. A nested class is
+     * wrapped in its enclosing classes. Enums list their constants and the signatures of their
+     * value methods. Empty for annotations and classes that are not indexed.
+     */
+    public Optional<String> readDeclarationSource(String canonicalName) {
+        Location location = classes.get(canonicalName);
+        if (location == null) {
+            return Optional.empty();
+        }
+        ClassFile classFile;
+        try (InputStream input = openClassFile(canonicalName)) {
+            if (input == null) {
+                return Optional.empty();
+            }
+            classFile = new ClassFile(new DataInputStream(input));
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not read class {}: {}", canonicalName, e.getMessage());
+            return Optional.empty();
+        }
+        if ((classFile.getAccessFlags() & AccessFlag.ANNOTATION) != 0) {
+            return Optional.empty();
+        }
+
+        String binaryName = classFile.getName();
+        int lastDot = binaryName.lastIndexOf('.');
+        String[] names = binaryName.substring(lastDot + 1).split("\\$");
+        StringBuilder source = new StringBuilder();
+        if (lastDot > 0) {
+            source.append("package ").append(binaryName, 0, lastDot).append(";\n");
+        }
+        for (int i = 0; i < names.length - 1; i++) {
+            source.append(i == 0 ? "class " : "static class ").append(names[i]).append(" {\n");
+        }
+        if ((classFile.getAccessFlags() & AccessFlag.ENUM) != 0) {
+            appendEnumDeclaration(source, classFile, names[names.length - 1], names.length > 1);
+        } else {
+            appendDeclaration(source, classFile, names[names.length - 1], names.length > 1);
+        }
+        source.append("}\n".repeat(names.length - 1));
+        return Optional.of(source.toString());
+    }
+
+    private static void appendDeclaration(StringBuilder source, ClassFile classFile, String name, boolean nested) {
+        appendAnnotations(source, classFile.getAttribute(AnnotationsAttribute.visibleTag),
+            classFile.getAttribute(AnnotationsAttribute.invisibleTag));
+        source.append(nested ? "public static " : "public ")
+              .append(classFile.isInterface() ? "interface " : "class ").append(name);
+
+        SignatureAttribute signature = (SignatureAttribute) classFile.getAttribute(SignatureAttribute.tag);
+        String superclass = classFile.isInterface() ? null : classFile.getSuperclass();
+        if (signature != null) {
+            try {
+                SignatureAttribute.ClassSignature classSignature =
+                    SignatureAttribute.toClassSignature(signature.getSignature());
+                if (classSignature.getParameters().length > 0) {
+                    source.append(Arrays.stream(classSignature.getParameters())
+                            .map(SignatureAttribute.TypeParameter::getName)
+                            .collect(Collectors.joining(", ", "<", ">")));
+                }
+                if (superclass != null) {
+                    superclass = classSignature.getSuperClass().toString();
+                }
+            } catch (BadBytecode e) {
+                log.debug("Could not read signature of {}: {}", classFile.getName(), e.getMessage());
+            }
+        }
+        if (superclass != null && !superclass.equals("java.lang.Object")) {
+            source.append(" extends ").append(sourceType(superclass));
+        }
+        source.append(" {\n");
+
+        for (FieldInfo field : classFile.getFields()) {
+            if ((field.getAccessFlags() & AccessFlag.SYNTHETIC) != 0 || field.getName().contains("$")) {
+                continue;
+            }
+            appendAnnotations(source, field.getAttribute(AnnotationsAttribute.visibleTag),
+                field.getAttribute(AnnotationsAttribute.invisibleTag));
+            source.append((field.getAccessFlags() & AccessFlag.STATIC) != 0 ? "static " : "")
+                  .append(fieldType(field)).append(' ').append(field.getName()).append(";\n");
+        }
+        source.append("}\n");
+    }
+
+    /**
+     * Constants in declaration order, and the methods that decide how a constant is serialized.
+     * Method bodies are not needed and left out.
+     */
+    private static void appendEnumDeclaration(StringBuilder source, ClassFile classFile, String name, boolean nested) {
+        appendAnnotations(source, classFile.getAttribute(AnnotationsAttribute.visibleTag),
+            classFile.getAttribute(AnnotationsAttribute.invisibleTag));
+        source.append(nested ? "public static enum " : "public enum ").append(name).append(" {\n");
+        List<String> constants = new ArrayList<>();
+        for (FieldInfo field : classFile.getFields()) {
+            if ((field.getAccessFlags() & AccessFlag.ENUM) != 0) {
+                StringBuilder constant = new StringBuilder();
+                appendAnnotations(constant, field.getAttribute(AnnotationsAttribute.visibleTag),
+                    field.getAttribute(AnnotationsAttribute.invisibleTag));
+                constants.add(constant.append(field.getName()).toString());
+            }
+        }
+        source.append(String.join(",\n", constants)).append(";\n");
+        for (MethodInfo method : classFile.getMethods()) {
+            boolean valueMethod = Descriptor.numOfParameters(method.getDescriptor()) == 0
+                    && (method.getName().equals("getValue") || method.getName().equals("value"));
+            AttributeInfo annotations = method.getAttribute(AnnotationsAttribute.visibleTag);
+            if (!valueMethod && annotations == null) {
+                continue;
+            }
+            StringBuilder declaration = new StringBuilder();
+            appendAnnotations(declaration, annotations);
+            if (valueMethod || declaration.indexOf("JsonValue") >= 0) {
+                String descriptor = method.getDescriptor();
+                String returnType = Descriptor.toString(descriptor.substring(descriptor.indexOf(')') + 1));
+                source.append(declaration).append("public ").append(sourceType(returnType)).append(' ')
+                      .append(method.getName()).append("();\n");
+            }
+        }
+        source.append("}\n");
+    }
+
+    private static String fieldType(FieldInfo field) {
+        SignatureAttribute signature = (SignatureAttribute) field.getAttribute(SignatureAttribute.tag);
+        if (signature != null) {
+            try {
+                return sourceType(SignatureAttribute.toFieldSignature(signature.getSignature()).toString());
+            } catch (BadBytecode e) {
+                log.debug("Could not read signature of field {}: {}", field.getName(), e.getMessage());
+            }
+        }
+        return sourceType(Descriptor.toString(field.getDescriptor()));
+    }
+
+    private static void appendAnnotations(StringBuilder source, AttributeInfo... attributes) {
+        for (AttributeInfo attribute : attributes) {
+            if (attribute != null) {
+                for (Annotation annotation : ((AnnotationsAttribute) attribute).getAnnotations()) {
+                    // Only the type is renamed; member values stay as they are
+                    String typeName = annotation.getTypeName();
+                    source.append('@').append(sourceType(typeName))
+                          .append(annotation.toString().substring(1 + typeName.length())).append('\n');
+                }
+            }
+        }
+    }
+
+    /**
+     * Class files name nested classes {@code Outer$Inner}; source names them {@code Outer.Inner}.
+     */
+    private static String sourceType(String type) {
+        return type.replace('$', '.');
+    }
+
+    /**
+     * Annotation types of a field declared by an indexed class; empty if it has none or is not indexed.
+     */
+    public List<String> getFieldAnnotations(String canonicalName, String fieldName) {
+        Location location = classes.get(canonicalName);
+        if (location == null || location.indexedClass.getFieldAnnotations() == null) {
+            return List.of();
+        }
+        return location.indexedClass.getFieldAnnotations().getOrDefault(fieldName, List.of());
+    }
+
+    /**
+     * Annotation types of an indexed class; empty if it has none or is not indexed.
+     */
+    public List<String> getClassAnnotations(String canonicalName) {
+        Location location = classes.get(canonicalName);
+        if (location == null || location.indexedClass.getAnnotations() == null) {
+            return List.of();
+        }
+        return location.indexedClass.getAnnotations();
+    }
+
+    public boolean contains(String canonicalName) {
+        return classes.containsKey(canonicalName);
+    }
+
+    public int size() {
+        return classes.size();
+    }
+
+    /**
+     * Changes when a jar is added, removed or modified.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ZipFile zipFile : openJars.values()) {
+            zipFile.close();
+        }
+        openJars.clear();
+    }
+
+    private ZipFile openJar(int jar) {
+        try {
+            return new ZipFile(jars.get(jar).toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open jar " + jars.get(jar) + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Path> findJars(List<Path> classpath) {
+        Set<Path> jarFiles = new LinkedHashSet<>();
+        for (Path location : classpath) {
+            Path normalized = location.toAbsolutePath().normalize();
+            if (Files.isDirectory(normalized)) {
+                try (Stream<Path> files = Files.walk(normalized)) {
+                    files.filter(JarClassIndex::isClassJar)
+                         .sorted()
+                         .forEach(jarFiles::add);
+                } catch (IOException e) {
+                    log.warn("Could not search {} for jars: {}", normalized, e.getMessage());
+                }
+            } else if (Files.isRegularFile(normalized)) {
+                jarFiles.add(normalized);
+            } else {
+                log.warn("Class path entry does not exist: {}", normalized);
+            }
+        }
+        return new ArrayList<>(jarFiles);
+    }
+
+    private static boolean isClassJar(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".jar") && !name.endsWith("-sources.jar") && !name.endsWith("-javadoc.jar")
+                && Files.isRegularFile(file);
+    }
+
+    private static JarIndex.IndexedJar indexJar(Path jar, BasicFileAttributes attributes) throws IOException {
+        List<JarIndex.IndexedClass> indexedClasses = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (entry.isDirectory() || !name.endsWith(CLASS_SUFFIX) || name.startsWith("META-INF/")
+                        || name.endsWith("module-info.class") || name.endsWith("package-info.class")) {
+                    continue;
+                }
+                try (InputStream input = zipFile.getInputStream(entry)) {
+                    indexedClasses.add(indexClass(new ClassFile(new DataInputStream(input))));
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Could not read class {} in {}: {}", name, jar, e.getMessage());
+                }
+            }
+        }
+        indexedClasses.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return JarIndex.IndexedJar.builder()
+                .path(jar.toString())
+                .size(attributes.size())
+                .lastModified(attributes.lastModifiedTime().toMillis())
+                .classes(indexedClasses)
+                .build();
+    }
+
+    private static JarIndex.IndexedClass indexClass(ClassFile classFile) {
+        Map<String, List<String>> fieldAnnotations = new TreeMap<>();
+        for (FieldInfo field : classFile.getFields()) {
+            List<String> annotations = annotations(
+                (AnnotationsAttribute) field.getAttribute(AnnotationsAttribute.visibleTag),
+                (AnnotationsAttribute) field.getAttribute(AnnotationsAttribute.invisibleTag));
+            if (!annotations.isEmpty()) {
+                fieldAnnotations.put(field.getName(), annotations);
+            }
+        }
+        return JarIndex.IndexedClass.builder()
+                .name(classFile.getName())
+                .annotations(annotations(
+                    (AnnotationsAttribute) classFile.getAttribute(AnnotationsAttribute.visibleTag),
+                    (AnnotationsAttribute) classFile.getAttribute(AnnotationsAttribute.invisibleTag)))
+                .fieldAnnotations(fieldAnnotations)
+                .build();
+    }
+
+    private static List<String> annotations(AnnotationsAttribute... attributes) {
+        List<String> types = new ArrayList<>();
+        for (AnnotationsAttribute attribute : attributes) {
+            if (attribute != null) {
+                for (Annotation annotation : attribute.getAnnotations()) {
+                    types.add(annotation.getTypeName());
+                }
+            }
+        }
+        return types.isEmpty() ? List.of() : types;
+    }
+
+    private static Map<String, JarIndex.IndexedJar> readIndex(Path indexFile) {
+        if (!Files.isRegularFile(indexFile)) {
+            return Map.of();
+        }
+        try {
+            JarIndex index = objectMapper.readValue(indexFile.toFile(), JarIndex.class);
+            if (index.getFormatVersion() != FORMAT_VERSION || index.getJars() == null) {
+                return Map.of();
+            }
+            return index.getJars().stream()
+                    .collect(Collectors.toMap(JarIndex.IndexedJar::getPath, Function.identity(),
+                        (first, second) -> first, LinkedHashMap::new));
+        } catch (IOException e) {
+            log.warn("Could not read jar index {}, rebuilding it: {}", indexFile, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Writes next to the target and moves the file into place, so concurrent runs never read a partial index.
+     */
+    private static void writeIndex(Path indexFile, List<JarIndex.IndexedJar> indexedJars) {
+        Path absolute = indexFile.toAbsolutePath();
+        try {
+            Files.createDirectories(absolute.getParent());
+            Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            try {
+                objectMapper.writeValue(temporary.toFile(), new JarIndex(FORMAT_VERSION, indexedJars));
+                Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            log.warn("Could not write jar index {}: {}", indexFile, e.getMessage());
+        }
+    }
+
+    private static String canonicalName(String binaryName) {
+        return binaryName.replace('$', '.');
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
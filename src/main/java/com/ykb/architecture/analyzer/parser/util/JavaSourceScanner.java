@@ -0,0 +1,320 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Extracts the package and the declared type names from Java source text
+ * without building an AST. Comments, string, char and text-block literals are
+ * skipped, and nesting is followed through braces so inner types get their
+ * outer type as prefix (e.g. {@code Outer.Inner}).
+ * The same pass can blank method bodies for a parse that only needs declarations.
+ */
+@UtilityClass
+public class JavaSourceScanner {
+
+    @Data
+    @Builder
+    public static class ScannedType {
+        /** Name relative to the package, e.g. {@code Outer.Inner}. */
+        private String name;
+        /** One of class, interface, enum, record or @interface. */
+        private String kind;
+    }
+
+    @Data
+    @Builder
+    public static class ScannedSource {
+        private String packageName;
+        private List<ScannedType> types;
+
+        public String qualify(String relativeName) {
+            return packageName == null || packageName.isEmpty() ? relativeName : packageName + "." + relativeName;
+        }
+    }
+
+    public static ScannedSource scan(CharSequence source) {
+        Scanner scanner = new Scanner(source, false);
+        scanner.run();
+        return ScannedSource.builder()
+                .packageName(scanner.packageName)
+                .types(scanner.types)
+                .build();
+    }
+
+    /**
+     * Returns the source with the bodies of the methods and constructors of classes, interfaces
+     * and records replaced by whitespace, keeping line breaks so positions stay valid.
+     * Enum bodies are kept whole, since enum schemas are read from their constructors and
+     * {@code @JsonValue} methods; field initializers and initializer blocks are kept as well.
+     */
+    public static String blankMethodBodies(CharSequence source) {
+        Scanner scanner = new Scanner(source, true);
+        scanner.run();
+        return new String(scanner.blanked);
+    }
+
+    private static final class Scanner {
+        private final CharSequence source;
+        private final int length;
+        private int position;
+
+        private int depth;
+        private String packageName = "";
+        private final List<ScannedType> types = new ArrayList<>();
+
+        /** Type whose header has been read but whose body brace has not been seen yet. */
+        private String pendingName;
+        private String pendingKind;
+        private final Deque<String> openTypes = new ArrayDeque<>();
+        private final Deque<String> openKinds = new ArrayDeque<>();
+        private final Deque<Integer> openDepths = new ArrayDeque<>();
+
+        /** Copy of the source whose method bodies are blanked, or null when only scanning. */
+        private final char[] blanked;
+        private int parenDepth;
+        /** Whether the current member has an initializer or a throws clause so far. */
+        private boolean memberAssigned;
+        private boolean memberThrows;
+
+        private Scanner(CharSequence source, boolean blankMethodBodies) {
+            this.source = source;
+            this.length = source.length();
+            this.blanked = blankMethodBodies ? source.toString().toCharArray() : null;
+        }
+
+        private void run() {
+            char previousSignificant = 0;
+            while (position < length) {
+                char c = source.charAt(position);
+                if (c == '/' && peek(1) == '/') {
+                    skipLineComment();
+                } else if (c == '/' && peek(1) == '*') {
+                    skipBlockComment();
+                } else if (c == '"') {
+                    skipStringOrTextBlock();
+                    previousSignificant = '"';
+                } else if (c == '\'') {
+                    skipCharLiteral();
+                    previousSignificant = '\'';
+                } else if (c == '{') {
+                    if (blanked != null && isMethodBody(previousSignificant)) {
+                        blankBody();
+                        endMember();
+                        previousSignificant = '}';
+                        continue;
+                    }
+                    depth++;
+                    if (pendingName != null) {
+                        openTypes.push(pendingName);
+                        openKinds.push(pendingKind);
+                        openDepths.push(depth);
+                        pendingName = null;
+                    }
+                    endMember();
+                    position++;
+                    previousSignificant = c;
+                } else if (c == '}') {
+                    if (!openDepths.isEmpty() && openDepths.peek() == depth) {
+                        openDepths.pop();
+                        openTypes.pop();
+                        openKinds.pop();
+                    }
+                    depth--;
+                    endMember();
+                    position++;
+                    previousSignificant = c;
+                } else if (Character.isJavaIdentifierStart(c)) {
+                    String identifier = readIdentifier();
+                    handleIdentifier(identifier, previousSignificant);
+                    previousSignificant = 'a';
+                } else {
+                    if (c == '(') {
+                        parenDepth++;
+                    } else if (c == ')') {
+                        parenDepth--;
+                    } else if (parenDepth == 0 && c == '=') {
+                        memberAssigned = true;
+                    } else if (parenDepth == 0 && c == ';') {
+                        endMember();
+                    }
+                    if (!Character.isWhitespace(c)) {
+                        previousSignificant = c;
+                    }
+                    position++;
+                }
+            }
+        }
+
+        private void endMember() {
+            memberAssigned = false;
+            memberThrows = false;
+        }
+
+        /**
+         * A brace directly in the body of a class, interface or record that follows a parameter
+         * list or throws clause, and not an initializer, opens a method or constructor body.
+         */
+        private boolean isMethodBody(char previousSignificant) {
+            return pendingName == null
+                    && parenDepth == 0
+                    && !openDepths.isEmpty() && openDepths.peek() == depth
+                    && !"enum".equals(openKinds.peek())
+                    && !memberAssigned
+                    && (previousSignificant == ')' || memberThrows);
+        }
+
+        /**
+         * Skips from an opening brace past its matching closing brace, blanking everything between.
+         */
+        private void blankBody() {
+            int start = position + 1;
+            int level = 0;
+            while (position < length) {
+                char c = source.charAt(position);
+                if (c == '/' && peek(1) == '/') {
+                    skipLineComment();
+                } else if (c == '/' && peek(1) == '*') {
+                    skipBlockComment();
+                } else if (c == '"') {
+                    skipStringOrTextBlock();
+                } else if (c == '\'') {
+                    skipCharLiteral();
+                } else {
+                    position++;
+                    if (c == '{') {
+                        level++;
+                    } else if (c == '}' && --level == 0) {
+                        break;
+                    }
+                }
+            }
+            int end = Math.min(position - 1, length);
+            for (int i = start; i < end; i++) {
+                if (blanked[i] != '\n' && blanked[i] != '\r') {
+                    blanked[i] = ' ';
+                }
+            }
+        }
+
+        private void handleIdentifier(String identifier, char previousSignificant) {
+            if (depth == 0 && identifier.equals("package") && packageName.isEmpty()) {
+                packageName = readQualifiedName();
+                return;
+            }
+            if (previousSignificant == '.') {
+                // Foo.class and similar member accesses
+                return;
+            }
+            if (identifier.equals("class") || identifier.equals("interface")
+                    || identifier.equals("enum") || identifier.equals("record")) {
+                skipWhitespace();
+                if (position < length && Character.isJavaIdentifierStart(source.charAt(position))) {
+                    String name = readIdentifier();
+                    String kind = previousSignificant == '@' ? "@interface" : identifier;
+                    String relativeName = openTypes.isEmpty() ? name : openTypes.peek() + "." + name;
+                    types.add(ScannedType.builder().name(relativeName).kind(kind).build());
+                    pendingName = relativeName;
+                    pendingKind = kind;
+                }
+            } else if (identifier.equals("throws") && parenDepth == 0) {
+                memberThrows = true;
+            }
+        }
+
+        private String readIdentifier() {
+            int start = position;
+            while (position < length && Character.isJavaIdentifierPart(source.charAt(position))) {
+                position++;
+            }
+            return source.subSequence(start, position).toString();
+        }
+
+        private String readQualifiedName() {
+            StringBuilder name = new StringBuilder();
+            while (position < length) {
+                char c = source.charAt(position);
+                if (c == ';') {
+                    break;
+                }
+                if (c == '/' && (peek(1) == '/' || peek(1) == '*')) {
+                    if (peek(1) == '/') {
+                        skipLineComment();
+                    } else {
+                        skipBlockComment();
+                    }
+                    continue;
+                }
+                if (Character.isJavaIdentifierPart(c) || c == '.') {
+                    name.append(c);
+                }
+                position++;
+            }
+            return name.toString();
+        }
+
+        private void skipWhitespace() {
+            while (position < length) {
+                char c = source.charAt(position);
+                if (Character.isWhitespace(c)) {
+                    position++;
+                } else if (c == '/' && peek(1) == '/') {
+                    skipLineComment();
+                } else if (c == '/' && peek(1) == '*') {
+                    skipBlockComment();
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private void skipLineComment() {
+            while (position < length && source.charAt(position) != '\n') {
+                position++;
+            }
+        }
+
+        private void skipBlockComment() {
+            position += 2;
+            while (position < length && !(source.charAt(position) == '*' && peek(1) == '/')) {
+                position++;
+            }
+            position += 2;
+        }
+
+        private void skipStringOrTextBlock() {
+            if (peek(1) == '"' && peek(2) == '"') {
+                position += 3;
+                while (position < length && !(source.charAt(position) == '"' && peek(1) == '"' && peek(2) == '"')) {
+                    position += source.charAt(position) == '\\' ? 2 : 1;
+                }
+                position += 3;
+                return;
+            }
+            position++;
+            while (position < length && source.charAt(position) != '"' && source.charAt(position) != '\n') {
+                position += source.charAt(position) == '\\' ? 2 : 1;
+            }
+            position++;
+        }
+
+        private void skipCharLiteral() {
+            position++;
+            while (position < length && source.charAt(position) != '\'' && source.charAt(position) != '\n') {
+                position += source.charAt(position) == '\\' ? 2 : 1;
+            }
+            position++;
+        }
+
+        private char peek(int offset) {
+            int index = position + offset;
+            return index < length ? source.charAt(index) : 0;
+        }
+    }
+}
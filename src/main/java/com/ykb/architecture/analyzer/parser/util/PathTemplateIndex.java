@@ -0,0 +1,151 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Segment trie of path templates such as {@code /accounts/{id}/cards}, one trie per HTTP method.
+ * Paths are split on slashes, ignoring empty segments, so duplicate and trailing slashes do
+ * not matter, in line with {@link PathResolver}. A {@code {var}} segment of an indexed
+ * template matches any single segment.
+ * <p>
+ * Lookups accept concrete paths as well as templates. Literal segments are preferred over
+ * variables, so {@code /accounts/me} finds {@code /accounts/me} before {@code /accounts/{id}};
+ * a variable in the looked-up path only matches a variable in the index. Not thread-safe
+ * for concurrent modification; concurrent lookups after building are safe.
+ *
+ * @param <T> value stored per template, e.g. the provided endpoint
+ */
+public class PathTemplateIndex<T> {
+    /** Key for templates registered without an HTTP method; they match any method. */
+    public static final String ANY_METHOD = "*";
+
+    private final Map<String, Node<T>> roots = new LinkedHashMap<>();
+    private int size;
+
+    private static final class Node<T> {
+        private Map<String, Node<T>> literals;
+        private Node<T> variable;
+        private T value;
+    }
+
+    /**
+     * Adds a template. When the same method and template (ignoring variable names) is
+     * added twice, the first value is kept.
+     *
+     * @return true if the template was added, false if it was already indexed
+     */
+    public boolean add(String httpMethod, String template, T value) {
+        Node<T> node = roots.computeIfAbsent(methodKey(httpMethod), key -> new Node<>());
+        int length = template == null ? 0 : template.length();
+        int position = 0;
+        while (position < length) {
+            int end = segmentEnd(template, position);
+            if (end > position) {
+                if (isVariable(template, position, end)) {
+                    if (node.variable == null) {
+                        node.variable = new Node<>();
+                    }
+                    node = node.variable;
+                } else {
+                    if (node.literals == null) {
+                        node.literals = new HashMap<>();
+                    }
+                    node = node.literals.computeIfAbsent(template.substring(position, end), key -> new Node<>());
+                }
+            }
+            position = end + 1;
+        }
+        if (node.value != null) {
+            return false;
+        }
+        node.value = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns the best match for the method and path: a template registered for the method
+     * itself wins over one registered without a method.
+     */
+    public Optional<T> match(String httpMethod, String path) {
+        T value = null;
+        if (httpMethod != null) {
+            value = match(roots.get(httpMethod), path);
+        }
+        if (value == null) {
+            value = match(roots.get(ANY_METHOD), path);
+        }
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Returns the best match for the path under every indexed HTTP method that has one.
+     */
+    public Map<String, T> matchByMethod(String path) {
+        Map<String, T> matches = new LinkedHashMap<>();
+        roots.forEach((method, root) -> {
+            T value = match(root, path);
+            if (value != null) {
+                matches.put(method, value);
+            }
+        });
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private T match(Node<T> root, String path) {
+        if (root == null) {
+            return null;
+        }
+        String normalized = path == null ? "" : path;
+        return match(root, normalized, skipSlashes(normalized, 0));
+    }
+
+    private T match(Node<T> node, String path, int position) {
+        if (position >= path.length()) {
+            return node.value;
+        }
+        int end = segmentEnd(path, position);
+        int next = skipSlashes(path, end);
+
+        if (isVariable(path, position, end)) {
+            return node.variable != null ? match(node.variable, path, next) : null;
+        }
+        if (node.literals != null) {
+            Node<T> literal = node.literals.get(path.substring(position, end));
+            if (literal != null) {
+                T value = match(literal, path, next);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return node.variable != null ? match(node.variable, path, next) : null;
+    }
+
+    private static String methodKey(String httpMethod) {
+        return httpMethod != null ? httpMethod : ANY_METHOD;
+    }
+
+    private static int segmentEnd(String path, int position) {
+        int end = path.indexOf('/', position);
+        return end < 0 ? path.length() : end;
+    }
+
+    private static int skipSlashes(String path, int position) {
+        while (position < path.length() && path.charAt(position) == '/') {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isVariable(String path, int start, int end) {
+        return end - start >= 2 && path.charAt(start) == '{' && path.charAt(end - 1) == '}';
+    }
+}
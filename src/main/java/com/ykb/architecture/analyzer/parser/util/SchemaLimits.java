@@ -0,0 +1,39 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Upper bounds for expanding request and response schemas. A value of 0 means no limit.
+ * Expansion stops where a limit is reached and the schema is marked with {@code _truncated}.
+ */
+@Data
+@Builder
+public class SchemaLimits {
+
+    /**
+     * Maximum number of nested custom types expanded below a body, counting the body itself.
+     */
+    @Builder.Default
+    private int maxDepth = 0;
+
+    /**
+     * Maximum number of fields listed for one type; further fields are left out.
+     */
+    @Builder.Default
+    private int maxFieldsPerType = 0;
+
+    /**
+     * Maximum number of fields in one request or response body, including nested types.
+     */
+    @Builder.Default
+    private int maxNodes = 0;
+
+    public static SchemaLimits unlimited() {
+        return SchemaLimits.builder().build();
+    }
+
+    public boolean isUnlimited() {
+        return maxDepth <= 0 && maxFieldsPerType <= 0 && maxNodes <= 0;
+    }
+}
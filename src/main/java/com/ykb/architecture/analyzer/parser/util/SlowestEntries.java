@@ -0,0 +1,47 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import com.ykb.architecture.analyzer.core.model.metrics.TimedEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the slowest named operations seen so far, bounded to a fixed number of entries.
+ * Safe to record from several threads.
+ */
+public class SlowestEntries {
+    private final int limit;
+    private final PriorityQueue<TimedEntry> entries =
+        new PriorityQueue<>(Comparator.comparingLong(TimedEntry::getDurationMicros));
+
+    public SlowestEntries(int limit) {
+        this.limit = limit;
+    }
+
+    public void record(String name, long durationNanos) {
+        long durationMicros = durationNanos / 1_000;
+        synchronized (entries) {
+            if (entries.size() < limit) {
+                entries.add(new TimedEntry(name, durationMicros));
+            } else if (entries.peek().getDurationMicros() < durationMicros) {
+                entries.poll();
+                entries.add(new TimedEntry(name, durationMicros));
+            }
+        }
+    }
+
+    /**
+     * Returns the recorded entries, slowest first.
+     */
+    public List<TimedEntry> getEntries() {
+        List<TimedEntry> sorted;
+        synchronized (entries) {
+            sorted = new ArrayList<>(entries);
+        }
+        sorted.sort(Comparator.comparingLong(TimedEntry::getDurationMicros).reversed()
+                .thenComparing(TimedEntry::getName));
+        return sorted;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cheap check on the raw bytes of a source file for annotation usages, used to skip
+ * full parsing of files that cannot contain an endpoint. Matches {@code @Name} and
+ * qualified {@code @pkg.Name} forms; a mention inside a comment or string counts as
+ * a match, so the check can only err towards parsing a file.
+ */
+public class SourcePrefilter {
+    private final List<byte[]> annotationNames;
+
+    /**
+     * @param annotationNames simple annotation names; an empty collection accepts every file
+     */
+    public SourcePrefilter(Collection<String> annotationNames) {
+        this.annotationNames = annotationNames.stream()
+                .distinct()
+                .map(name -> name.getBytes(StandardCharsets.US_ASCII))
+                .collect(Collectors.toList());
+    }
+
+    public boolean acceptsAll() {
+        return annotationNames.isEmpty();
+    }
+
+    /**
+     * Returns true if the source may use one of the annotations.
+     */
+    public boolean mayContainAnnotation(byte[] source) {
+        if (acceptsAll()) {
+            return true;
+        }
+        for (int i = 0; i < source.length; i++) {
+            byte b = source[i];
+            if (b != '@' && b != '.') {
+                continue;
+            }
+            int start = skipWhitespace(source, i + 1);
+            for (byte[] name : annotationNames) {
+                if (matchesAt(source, start, name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int skipWhitespace(byte[] source, int position) {
+        while (position < source.length && (source[position] == ' ' || source[position] == '\t'
+                || source[position] == '\r' || source[position] == '\n')) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean matchesAt(byte[] source, int start, byte[] name) {
+        int end = start + name.length;
+        if (end > source.length) {
+            return false;
+        }
+        for (int j = 0; j < name.length; j++) {
+            if (source[start + j] != name[j]) {
+                return false;
+            }
+        }
+        // The name must end there, e.g. @Controller must not match @ControllerAdvice
+        return end == source.length || !isIdentifierPart(source[end]);
+    }
+
+    private static boolean isIdentifierPart(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+                || b == '_' || b == '$' || b < 0;
+    }
+}
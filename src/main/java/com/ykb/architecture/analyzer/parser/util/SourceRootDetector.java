@@ -0,0 +1,137 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the Java source roots below a directory.
+ * Maven/Gradle layouts (src/main/java, src/test/java, ...) are recognised by name,
+ * everything else by reading the package declaration of one file per directory.
+ */
+@Slf4j
+@UtilityClass
+public class SourceRootDetector {
+
+    private static final Pattern PACKAGE_DECLARATION = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;");
+    private static final Pattern DECLARATION_START =
+            Pattern.compile("^\\s*(import\\s|@|public\\s|final\\s|abstract\\s|class\\s|interface\\s|enum\\s|record\\s)");
+
+    /**
+     * Returns the detected source roots in a stable, sorted order.
+     */
+    public static List<Path> detect(Path baseDirectory) {
+        Set<Path> roots = new LinkedHashSet<>();
+        Map<Path, Path> rootByDirectory = new HashMap<>();
+
+        try {
+            Files.walkFileTree(baseDirectory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(baseDirectory) && dir.getFileName().toString().startsWith(".")) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    if (isConventionalSourceRoot(dir)) {
+                        roots.add(dir);
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (!file.toString().endsWith(".java")) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    // One package declaration per directory is enough
+                    Path directory = file.getParent();
+                    if (!rootByDirectory.containsKey(directory)) {
+                        Path root = rootFromPackage(file);
+                        rootByDirectory.put(directory, root);
+                        roots.add(root);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    log.warn("Could not visit {}: {}", file, e.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.error("Failed to detect source roots under {}: {}", baseDirectory, e.getMessage());
+        }
+
+        List<Path> sorted = new ArrayList<>(roots);
+        sorted.sort(null);
+        return sorted;
+    }
+
+    private static boolean isConventionalSourceRoot(Path dir) {
+        Path parent = dir.getParent();
+        Path grandParent = parent != null ? parent.getParent() : null;
+        return grandParent != null
+                && dir.getFileName().toString().equals("java")
+                && grandParent.getFileName() != null
+                && grandParent.getFileName().toString().equals("src");
+    }
+
+    /**
+     * Strips the package path from the file's directory, e.g.
+     * {@code module/gen/com/acme/Foo.java} with {@code package com.acme;} gives {@code module/gen}.
+     */
+    private static Path rootFromPackage(Path file) {
+        Path directory = file.getParent();
+        Optional<String> packageName = readPackageName(file);
+        if (packageName.isEmpty()) {
+            return directory;
+        }
+
+        String[] segments = packageName.get().split("\\.");
+        Path root = directory;
+        for (int i = segments.length - 1; i >= 0; i--) {
+            if (root == null || root.getFileName() == null || !root.getFileName().toString().equals(segments[i])) {
+                // Directory layout does not follow the package, fall back to the file's directory
+                return directory;
+            }
+            root = root.getParent();
+        }
+        return root != null ? root : directory;
+    }
+
+    private static Optional<String> readPackageName(Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = PACKAGE_DECLARATION.matcher(line);
+                if (matcher.find()) {
+                    return Optional.of(matcher.group(1));
+                }
+                if (DECLARATION_START.matcher(line).find()) {
+                    return Optional.empty();
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Could not read package declaration of {}: {}", file, e.getMessage());
+        }
+        return Optional.empty();
+    }
+}
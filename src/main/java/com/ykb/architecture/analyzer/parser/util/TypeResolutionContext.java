@@ -0,0 +1,367 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.resolution.SymbolResolver;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.cache.Cache;
+import com.github.javaparser.resolution.cache.InMemoryCache;
+import com.github.javaparser.resolution.cache.NoCache;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the symbol solvers and parser configuration for one analysis.
+ * Created once and shared by every parser strategy and worker thread. JavaParser's solvers
+ * and their caches are not thread-safe, so each thread resolves with a solver of its own;
+ * all of them share the parsed compilation units and the class index, so a file is still
+ * parsed once. Parsed units carry a resolver that hands every resolution to the solver of
+ * the thread asking, so resolution never waits for another thread.
+ * <p>
+ * The per-thread solvers and parsers are kept by the context, not by the threads, so a
+ * long-lived worker pool shared by several analyses does not keep earlier contexts reachable.
+ * They are dropped with {@link #releaseSolvers()} when an analysis finishes.
+ */
+@Slf4j
+public class TypeResolutionContext {
+    public static final int DEFAULT_COMPILATION_UNIT_CACHE_SIZE = 2000;
+
+    private final String sourceRoot;
+    private final List<Path> sourceRoots;
+    private final ParserConfiguration parserConfiguration;
+    private final ClassIndex classIndex;
+    private final CompilationUnitCache compilationUnitCache;
+    private final JarClassIndex jarClassIndex;
+    private final boolean lightweightParse;
+
+    /**
+     * Solver of each thread that resolved types, created on first use.
+     */
+    private final Map<Thread, ThreadSolver> symbolSolvers = new ConcurrentHashMap<>();
+
+    /**
+     * JavaParser instances reuse their internal parser and are not thread-safe,
+     * so each thread gets its own instance sharing the same configuration.
+     */
+    private final Map<Thread, JavaParser> javaParsers = new ConcurrentHashMap<>();
+
+    /**
+     * A thread's solver with its type and directory caches, cleared when sources change between analyses.
+     */
+    private static final class ThreadSolver {
+        private final TypeSolver typeSolver;
+        private final JavaSymbolSolver solver;
+        private final List<Cache<?, ?>> caches;
+
+        private ThreadSolver(TypeSolver typeSolver, List<Cache<?, ?>> caches) {
+            this.typeSolver = typeSolver;
+            this.solver = new JavaSymbolSolver(typeSolver);
+            this.caches = caches;
+        }
+    }
+
+    public TypeResolutionContext(String sourceRoot) {
+        this(sourceRoot, DEFAULT_COMPILATION_UNIT_CACHE_SIZE);
+    }
+
+    public TypeResolutionContext(String sourceRoot, int compilationUnitCacheSize) {
+        this(sourceRoot, compilationUnitCacheSize, null);
+    }
+
+    /**
+     * @param jarClassIndex classes of dependency jars, solved after the sources; may be null
+     */
+    public TypeResolutionContext(String sourceRoot, int compilationUnitCacheSize, JarClassIndex jarClassIndex) {
+        this(sourceRoot, compilationUnitCacheSize, jarClassIndex, false);
+    }
+
+    /**
+     * @param lightweightParse when true, source files are parsed without method bodies,
+     *                         comments and tokens, which endpoint and schema extraction never read
+     */
+    public TypeResolutionContext(String sourceRoot, int compilationUnitCacheSize, JarClassIndex jarClassIndex,
+                                 boolean lightweightParse) {
+        this.sourceRoot = sourceRoot;
+        this.compilationUnitCache = new CompilationUnitCache(compilationUnitCacheSize);
+        this.jarClassIndex = jarClassIndex;
+        this.lightweightParse = lightweightParse;
+
+        this.parserConfiguration = new ParserConfiguration()
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17)
+                .setSymbolResolver(new ThreadSymbolResolver())
+                .setAttributeComments(!lightweightParse)
+                .setStoreTokens(!lightweightParse);
+
+        long start = System.nanoTime();
+        this.sourceRoots = SourceRootDetector.detect(Path.of(sourceRoot));
+        log.info("Detected {} source roots under {} in {} ms",
+            sourceRoots.size(), sourceRoot, (System.nanoTime() - start) / 1_000_000);
+        sourceRoots.forEach(root -> log.debug("Source root: {}", root));
+
+        this.classIndex = new ClassIndex(this);
+    }
+
+    /**
+     * Creates the solver of the calling thread: reflection first, then one solver per source root,
+     * then the dependency jars, whose types the analyzed sources take precedence over.
+     */
+    private ThreadSolver createSymbolSolver() {
+        List<Cache<?, ?>> caches = new ArrayList<>();
+        Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> typeCache = recordingTypeCache();
+        caches.add(typeCache);
+        CombinedTypeSolver combinedSolver = new CombinedTypeSolver(
+            CombinedTypeSolver.ExceptionHandlers.IGNORE_NONE, List.of(), typeCache);
+        combinedSolver.add(new ReflectionTypeSolver(false));
+
+        // The source solvers share the compilation unit cache with the scan, and files they look
+        // up are parsed by this context: a unit they put into the cache must be resolvable when
+        // the scan picks it up. Directory listings are not kept, as they would hold on to units
+        // the bounded cache has evicted; their files are read through that cache again.
+        for (Path root : sourceRoots) {
+            try {
+                Cache<Path, List<CompilationUnit>> parsedDirectories = NoCache.create();
+                Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> foundTypes = InMemoryCache.create();
+                combinedSolver.add(new IndexedSourceTypeSolver(root,
+                    new JavaParserTypeSolver(root, new JavaParser(parserConfiguration),
+                        compilationUnitCache.asTypeSolverCache(this::parse), parsedDirectories, foundTypes),
+                    this::getClassIndex));
+                caches.add(foundTypes);
+            } catch (Exception e) {
+                log.warn("Could not add source root to solver: {}", root, e);
+            }
+        }
+
+        if (jarClassIndex != null) {
+            combinedSolver.add(new IndexedJarTypeSolver(jarClassIndex));
+        }
+        return new ThreadSolver(combinedSolver, caches);
+    }
+
+    private ThreadSolver threadSolver() {
+        Thread thread = Thread.currentThread();
+        ThreadSolver threadSolver = symbolSolvers.get(thread);
+        if (threadSolver == null) {
+            // Only this thread creates its entry, so there is no race for the key
+            threadSolver = createSymbolSolver();
+            symbolSolvers.put(thread, threadSolver);
+        }
+        return threadSolver;
+    }
+
+    private JavaSymbolSolver symbolSolver() {
+        return threadSolver().solver;
+    }
+
+    private JavaParser javaParser() {
+        return javaParsers.computeIfAbsent(Thread.currentThread(), thread -> new JavaParser(parserConfiguration));
+    }
+
+    /**
+     * The resolver attached to every parsed unit. A unit parsed on one thread is resolved on
+     * others, so the resolver picks the solver of the thread that resolves, not the one that parsed.
+     */
+    private final class ThreadSymbolResolver implements SymbolResolver {
+        @Override
+        public <T> T resolveDeclaration(Node node, Class<T> resultClass) {
+            return symbolSolver().resolveDeclaration(node, resultClass);
+        }
+
+        @Override
+        public <T> T toResolvedType(Type javaparserType, Class<T> resultClass) {
+            return symbolSolver().toResolvedType(javaparserType, resultClass);
+        }
+
+        @Override
+        public ResolvedType calculateType(Expression expression) {
+            return symbolSolver().calculateType(expression);
+        }
+
+        @Override
+        public ResolvedReferenceTypeDeclaration toTypeDeclaration(Node node) {
+            return symbolSolver().toTypeDeclaration(node);
+        }
+    }
+
+    /**
+     * Type cache of the combined solver that records every lookup, so a result that was
+     * served from the cache still shows up as a dependency of the step that asked for it.
+     */
+    private static Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> recordingTypeCache() {
+        InMemoryCache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> delegate = InMemoryCache.create();
+        return new Cache<>() {
+            @Override
+            public void put(String name, SymbolReference<ResolvedReferenceTypeDeclaration> value) {
+                delegate.put(name, value);
+            }
+
+            @Override
+            public Optional<SymbolReference<ResolvedReferenceTypeDeclaration>> get(String name) {
+                DependencyRecorder.recordType(name);
+                return delegate.get(name);
+            }
+
+            @Override
+            public void remove(String name) {
+                delegate.remove(name);
+            }
+
+            @Override
+            public void removeAll() {
+                delegate.removeAll();
+            }
+
+            @Override
+            public boolean contains(String name) {
+                DependencyRecorder.recordType(name);
+                return delegate.contains(name);
+            }
+
+            @Override
+            public long size() {
+                return delegate.size();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return delegate.isEmpty();
+            }
+        };
+    }
+
+    /**
+     * Parses a source file with the symbol solver attached, so types in the
+     * returned compilation unit can be resolved.
+     */
+    public CompilationUnit parse(Path path) throws IOException {
+        if (!lightweightParse) {
+            return unit(javaParser().parse(path));
+        }
+        return parseFileContent(Files.readAllBytes(path)).setStorage(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses source text that does not belong to a file, such as a declaration read from a jar.
+     */
+    public CompilationUnit parseSource(String source) {
+        return unit(javaParser().parse(source));
+    }
+
+    /**
+     * Returns the parsed compilation unit for a file, parsing it only if it is not cached.
+     */
+    public CompilationUnit getCompilationUnit(Path path) throws IOException {
+        return compilationUnitCache.getOrParse(path, this::parse);
+    }
+
+    /**
+     * Same as {@link #getCompilationUnit(Path)}, but parses content that was already read.
+     */
+    public CompilationUnit getCompilationUnit(Path path, byte[] content) throws IOException {
+        return compilationUnitCache.getOrParse(path, file ->
+            parseFileContent(content).setStorage(file, StandardCharsets.UTF_8));
+    }
+
+    private CompilationUnit parseFileContent(byte[] content) {
+        String source = new String(content, StandardCharsets.UTF_8);
+        return unit(javaParser().parse(lightweightParse ? JavaSourceScanner.blankMethodBodies(source) : source));
+    }
+
+    private static CompilationUnit unit(ParseResult<CompilationUnit> result) {
+        if (!result.isSuccessful() || result.getResult().isEmpty()) {
+            throw new ParseProblemException(result.getProblems());
+        }
+        return result.getResult().get();
+    }
+
+    /**
+     * Forgets everything derived from the given files, so the next analysis sees their current
+     * content: their parsed units are dropped and the solvers' type caches are cleared, since
+     * a cached type may come from a changed file. Unchanged units stay cached.
+     * Must not run while an analysis resolves types.
+     */
+    public void invalidate(Collection<Path> changedFiles) {
+        changedFiles.forEach(compilationUnitCache::invalidate);
+        symbolSolvers.values().forEach(threadSolver -> threadSolver.caches.forEach(Cache::removeAll));
+    }
+
+    /**
+     * Drops the solvers and parsers of every thread, together with the units and types they
+     * cached; a thread that resolves again gets new ones. Also clears JavaParser's global facade
+     * map, whose entries keep their solvers reachable. Facades are only caches, so analyses
+     * running at the same time merely rebuild theirs.
+     */
+    public void releaseSolvers() {
+        symbolSolvers.clear();
+        javaParsers.clear();
+        // JavaParserFacade.get is synchronized on the class, clearInstances is not
+        synchronized (JavaParserFacade.class) {
+            JavaParserFacade.clearInstances();
+        }
+    }
+
+    public CompilationUnitCache getCompilationUnitCache() {
+        return compilationUnitCache;
+    }
+
+    public String getSourceRoot() {
+        return sourceRoot;
+    }
+
+    public List<Path> getSourceRoots() {
+        return sourceRoots;
+    }
+
+    /**
+     * Classes of dependency jars, or null if no class path was given.
+     */
+    public JarClassIndex getJarClassIndex() {
+        return jarClassIndex;
+    }
+
+    public ClassIndex getClassIndex() {
+        return classIndex;
+    }
+
+    public boolean isLightweightParse() {
+        return lightweightParse;
+    }
+
+    /**
+     * The symbol solver of the calling thread.
+     */
+    public JavaSymbolSolver getSymbolSolver() {
+        return symbolSolver();
+    }
+
+    /**
+     * The type solver of the calling thread, for looking up types by qualified name:
+     * the JDK and the analyzer's class path, the sources, then the dependency jars.
+     */
+    public TypeSolver getTypeSolver() {
+        return threadSolver().typeSolver;
+    }
+}
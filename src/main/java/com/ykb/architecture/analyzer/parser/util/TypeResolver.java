@@ -1,31 +1,50 @@
 package com.ykb.architecture.analyzer.parser.util;
 
-import com.fasterxml.jackson.annotation.JsonValue;
-import com.github.javaparser.ParserConfiguration;
-import com.github.javaparser.StaticJavaParser;
-import com.github.javaparser.ast.CompilationUnit;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.AssignExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MemberValuePair;
+import com.github.javaparser.ast.expr.UnaryExpr;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.resolution.declarations.ResolvedEnumConstantDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedEnumDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedFieldDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.types.ResolvedReferenceType;
 import com.github.javaparser.resolution.types.ResolvedType;
-import com.github.javaparser.symbolsolver.JavaSymbolSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import com.ykb.architecture.analyzer.core.model.cache.SchemaSnapshot;
+import com.ykb.architecture.analyzer.core.model.metrics.TimedEntry;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
-import java.lang.reflect.Method;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Resolves Java types into a standardized format for API documentation.
  * Handles primitive types, collections, enums, and custom objects.
+ * <p>
+ * One instance is shared by all worker threads and nothing on the resolution path is locked:
+ * each thread resolves with its own symbol solver (see {@link TypeResolutionContext}) and
+ * schemas are cached in concurrent maps. Two threads missing the same schema may both build it;
+ * schemas are only cached where they do not depend on where resolution started, so either
+ * result is the same. Cycle detection is scoped to the resolution running on the current thread.
  */
 @Slf4j
 public class TypeResolver {
@@ -43,46 +62,653 @@ public class TypeResolver {
         "java.sql.Timestamp", "DateTime"
     );
 
-    private final JavaSymbolSolver symbolSolver;
-    private final String sourceRoot;
-    private final Set<String> processedTypes = new HashSet<>();
+    private static final int SLOWEST_TYPES = 20;
+    private static final String RECURSIVE = "_recursive";
+    private static final String TRUNCATED = "_truncated";
+    private static final String REASON = "_reason";
+    private static final ObjectMapper SNAPSHOT_MAPPER = new ObjectMapper(new SmileFactory());
+    private static final TypeReference<Map<String, Object>> SCHEMA_TYPE = new TypeReference<>() {};
+
+    private final TypeResolutionContext context;
+    private final boolean sharedSchemas;
+    private final SchemaLimits limits;
+    private final ThreadLocal<ResolutionScope> resolutionScope = ThreadLocal.withInitial(ResolutionScope::new);
+    private final Map<String, CachedSchema> schemaCache = new ConcurrentHashMap<>();
+    /** Enum schemas and misses by qualified type name; their shape is always null. */
+    private final Map<String, CachedSchema> enumSchemas = new ConcurrentHashMap<>();
+    /** Entries of a restored snapshot that were not asked for yet, see {@link #restoreSchemas}. */
+    private final Map<String, SchemaSnapshot.Entry> snapshotSchemas = new ConcurrentHashMap<>();
+    private final Map<String, SchemaSnapshot.Entry> snapshotEnums = new ConcurrentHashMap<>();
+    private volatile Function<Map<String, String>, Optional<Set<String>>> snapshotDependencies = stored -> Optional.empty();
+    private volatile List<SchemaSnapshot.Dependency> snapshotDependencyTable = List.of();
+    private volatile Supplier<Optional<SchemaSnapshot>> pendingSnapshot;
+    private final Object snapshotLock = new Object();
+    private final LongAdder restoredSchemas = new LongAdder();
+    private final Set<String> referencedSchemas = ConcurrentHashMap.newKeySet();
+    private final LongAdder schemaCacheHits = new LongAdder();
+    private final LongAdder schemaCacheMisses = new LongAdder();
+    private final LongAdder resolutionCount = new LongAdder();
+    private final LongAdder resolutionNanos = new LongAdder();
+    private final LongAdder resolutionFailures = new LongAdder();
+    private final SlowestEntries slowestTypes = new SlowestEntries(SLOWEST_TYPES);
+
+    public TypeResolver(TypeResolutionContext context) {
+        this(context, false);
+    }
 
-    public TypeResolver(String sourceRoot) {
-        this.sourceRoot = sourceRoot;
-        
-        // Set language level to Java 17 (or your target version)
-        ParserConfiguration config = new ParserConfiguration();
-        config.setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
-        
-        // Create type solvers
-        CombinedTypeSolver combinedSolver = new CombinedTypeSolver();
-        combinedSolver.add(new ReflectionTypeSolver(false));
-        
-        // Add source root and all its subdirectories
-        addSourceDirectories(combinedSolver, new File(sourceRoot));
-        
-        // Create and configure symbol solver with the new configuration
-        this.symbolSolver = new JavaSymbolSolver(combinedSolver);
-        StaticJavaParser.setConfiguration(config.setSymbolResolver(symbolSolver));
+    /**
+     * @param sharedSchemas when true, top-level request and response bodies are returned as
+     *                      {@code $ref} entries pointing into {@link #getSharedSchemas()}
+     */
+    public TypeResolver(TypeResolutionContext context, boolean sharedSchemas) {
+        this(context, sharedSchemas, SchemaLimits.unlimited());
     }
 
-    private void addSourceDirectories(CombinedTypeSolver solver, File directory) {
-        if (!directory.isDirectory()) {
-            return;
+    /**
+     * @param limits bounds for expanding nested types; cut-off schemas are marked {@code _truncated}
+     */
+    public TypeResolver(TypeResolutionContext context, boolean sharedSchemas, SchemaLimits limits) {
+        this.context = context;
+        this.sharedSchemas = sharedSchemas;
+        this.limits = limits;
+    }
+
+    private static String requestSchemaKey(String typeName, boolean isValidated) {
+        return typeName + (isValidated ? "@request-validated" : "@request");
+    }
+
+    private static String responseSchemaKey(String typeName) {
+        return typeName;
+    }
+
+    /**
+     * Memoizes a schema under its key. Cached schemas are read-only because the same
+     * instance is handed to every endpoint and nested field that uses the type.
+     * <p>
+     * A type that refers back to a schema still being built on this thread (a tree node
+     * with a parent field, a customer with orders pointing back to it) gets a
+     * {@code _recursive} reference instead of being expanded again, and a type nested
+     * deeper than {@link SchemaLimits#getMaxDepth()} a {@code _truncated} one. A schema is
+     * only cached if it does not depend on where the resolution started, and a cached schema
+     * is only reused where expanding it again would give the same result, so the report does
+     * not depend on the order in which endpoints are resolved.
+     */
+    private Map<String, Object> cachedSchema(String key, String typeName, Supplier<Map<String, Object>> builder) {
+        ResolutionScope scope = resolutionScope.get();
+        CachedSchema cached = schemaCache.get(key);
+        if (cached != null && scope.canReuse(cached, limits)) {
+            return reuse(cached, scope);
         }
 
+        if (scope.isInProgress(key)) {
+            scope.visit(Set.of(key));
+            return recursiveReference(typeName);
+        }
+        if (limits.getMaxDepth() > 0 && scope.depth() >= limits.getMaxDepth()) {
+            scope.depthTruncated();
+            return truncatedReference(typeName, "Maximum depth of " + limits.getMaxDepth() + " nested types reached");
+        }
+        cached = schemaCache.get(key);
+        if (cached == null) {
+            cached = restoreSchema(key, snapshotSchemas, schemaCache);
+        }
+        if (cached != null && scope.canReuse(cached, limits)) {
+            return reuse(cached, scope);
+        }
+
+        schemaCacheMisses.increment();
+        boolean recording = DependencyRecorder.isRecording();
+        if (recording) {
+            DependencyRecorder.begin();
+        }
+        Map<String, Object> schema;
+        Set<String> dependencies;
+        ResolutionScope.Frame frame;
+        scope.begin(key, limits);
+        long start = System.nanoTime();
         try {
-            solver.add(new JavaParserTypeSolver(directory));
-        } catch (Exception e) {
-            log.warn("Could not add directory to solver: {}", directory, e);
+            schema = builder.get();
+        } finally {
+            slowestTypes.record(key, System.nanoTime() - start);
+            frame = scope.end();
+            dependencies = recording ? DependencyRecorder.end() : Set.of();
+        }
+        Map<String, Object> readOnly = schema != null ? readOnlySchema(schema) : null;
+        if (scope.isIndependentOf(frame.visited)) {
+            schemaCache.put(key, new CachedSchema(readOnly, dependencies, frame));
+        }
+        return readOnly;
+    }
+
+    private Map<String, Object> reuse(CachedSchema cached, ResolutionScope scope) {
+        schemaCacheHits.increment();
+        // A reused schema still depends on the files it was built from
+        DependencyRecorder.recordAll(cached.dependencies);
+        scope.reuse(cached.shape);
+        return cached.schema;
+    }
+
+    private Map<String, Object> recursiveReference(String typeName) {
+        Map<String, Object> reference = new LinkedHashMap<>();
+        reference.put("type", normalizeType(typeName));
+        reference.put(RECURSIVE, true);
+        return reference;
+    }
+
+    /**
+     * Marks a schema that was cut off by a limit, the same way unresolved types carry a reason.
+     */
+    private Map<String, Object> truncatedReference(String typeName, String reason) {
+        Map<String, Object> reference = new LinkedHashMap<>();
+        reference.put("type", normalizeType(typeName));
+        markTruncated(reference, reason);
+        return reference;
+    }
+
+    private static void markTruncated(Map<String, Object> schema, String reason) {
+        schema.put(TRUNCATED, true);
+        schema.put(REASON, reason);
+    }
+
+    /**
+     * Copies the recursion and truncation markers of a nested schema to the entry that embeds it.
+     */
+    private static void copyMarkers(Map<String, Object> from, Map<String, Object> to) {
+        for (String marker : List.of(RECURSIVE, TRUNCATED, REASON)) {
+            if (from.containsKey(marker)) {
+                to.put(marker, from.get(marker));
+            }
+        }
+    }
+
+    private static boolean isReference(Map<String, Object> schema) {
+        return schema.containsKey(RECURSIVE) || schema.containsKey(TRUNCATED) && !schema.containsKey("items");
+    }
+
+    /**
+     * Whether one more field fits into the type being built and into the current body,
+     * counting it as a node if it does.
+     *
+     * @param fieldsOfType fields of the type included so far
+     * @return null if the field fits, otherwise the reason the type's fields are cut off here
+     */
+    private String admitField(int fieldsOfType) {
+        if (limits.getMaxFieldsPerType() > 0 && fieldsOfType >= limits.getMaxFieldsPerType()) {
+            return "Only the first " + limits.getMaxFieldsPerType() + " fields are included";
+        }
+        if (limits.getMaxNodes() > 0 && !resolutionScope.get().takeNode(limits.getMaxNodes())) {
+            return "Maximum of " + limits.getMaxNodes() + " fields per schema reached";
+        }
+        return null;
+    }
+
+    private static class CachedSchema {
+        private final Map<String, Object> schema;
+        private final Set<String> dependencies;
+        private final ResolutionScope.Frame shape;
+        /** The schema as stored in a snapshot, kept so it is encoded only once. */
+        private byte[] encoded;
+
+        private CachedSchema(Map<String, Object> schema, Set<String> dependencies, ResolutionScope.Frame shape) {
+            this.schema = schema;
+            this.dependencies = dependencies;
+            this.shape = shape;
+        }
+
+        private byte[] encoded() throws IOException {
+            if (encoded == null && schema != null) {
+                encoded = SNAPSHOT_MAPPER.writeValueAsBytes(schema);
+            }
+            return encoded;
+        }
+    }
+
+    /**
+     * The schemas being built on one thread, outermost first, and the fields used so far
+     * by the body they belong to.
+     */
+    private static class ResolutionScope {
+        private final List<String> inProgress = new ArrayList<>();
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private int nodes;
+
+        /**
+         * What a schema build touched, which decides where its result can be reused.
+         */
+        private static class Frame {
+            /**
+             * Keys of this schema and of every schema expanded or referenced within it.
+             */
+            private final Set<String> visited = new HashSet<>();
+
+            /**
+             * Nesting depth the schema was built at, and how many levels it spans itself.
+             */
+            private final int depth;
+            private int height = 1;
+            private boolean depthTruncated;
+
+            /**
+             * Fields still available in the body when the build started, and fields it used.
+             */
+            private final int nodesAvailable;
+            private final int nodesAtStart;
+            private int nodes;
+            private boolean nodesTruncated;
+
+            private Frame(String key, int depth, int nodesAvailable, int nodesAtStart) {
+                this.visited.add(key);
+                this.depth = depth;
+                this.nodesAvailable = nodesAvailable;
+                this.nodesAtStart = nodesAtStart;
+            }
+
+            private Frame(SchemaSnapshot.Shape shape) {
+                this.visited.addAll(shape.getVisited());
+                this.depth = shape.getDepth();
+                this.height = shape.getHeight();
+                this.depthTruncated = shape.isDepthTruncated();
+                this.nodesAvailable = shape.getNodesAvailable();
+                this.nodesAtStart = 0;
+                this.nodes = shape.getNodes();
+                this.nodesTruncated = shape.isNodesTruncated();
+            }
+
+            private SchemaSnapshot.Shape toShape() {
+                return SchemaSnapshot.Shape.builder()
+                        .visited(new TreeSet<>(visited))
+                        .depth(depth)
+                        .height(height)
+                        .depthTruncated(depthTruncated)
+                        .nodesAvailable(nodesAvailable)
+                        .nodes(nodes)
+                        .nodesTruncated(nodesTruncated)
+                        .build();
+            }
+        }
+
+        int depth() {
+            return inProgress.size();
+        }
+
+        boolean isInProgress(String key) {
+            return inProgress.contains(key);
+        }
+
+        /**
+         * A cached schema gives the same result as a fresh build unless it reaches a type
+         * that is in progress here, which a fresh build would turn into a recursive reference,
+         * or the limits would cut it off at a different place.
+         */
+        boolean canReuse(CachedSchema cached, SchemaLimits limits) {
+            Frame shape = cached.shape;
+            if (!isIndependentOf(shape.visited)) {
+                return false;
+            }
+            if (limits.getMaxDepth() > 0 && (shape.depthTruncated
+                    ? depth() != shape.depth
+                    : depth() + shape.height > limits.getMaxDepth())) {
+                return false;
+            }
+            if (limits.getMaxNodes() > 0) {
+                int available = nodesAvailable(limits);
+                return shape.nodesTruncated ? available == shape.nodesAvailable : available >= shape.nodes;
+            }
+            return true;
+        }
+
+        boolean isIndependentOf(Set<String> visited) {
+            for (String key : inProgress) {
+                if (visited.contains(key)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int nodesAvailable(SchemaLimits limits) {
+            // A body starts with the full budget
+            return inProgress.isEmpty() ? limits.getMaxNodes() : limits.getMaxNodes() - nodes;
+        }
+
+        void begin(String key, SchemaLimits limits) {
+            if (inProgress.isEmpty()) {
+                nodes = 0;
+            }
+            frames.push(new Frame(key, depth(), nodesAvailable(limits), nodes));
+            inProgress.add(key);
+        }
+
+        Frame end() {
+            inProgress.remove(inProgress.size() - 1);
+            Frame frame = frames.pop();
+            frame.nodes = nodes - frame.nodesAtStart;
+            Frame parent = frames.peek();
+            if (parent != null) {
+                parent.visited.addAll(frame.visited);
+                parent.height = Math.max(parent.height, frame.height + 1);
+                parent.depthTruncated |= frame.depthTruncated;
+                parent.nodesTruncated |= frame.nodesTruncated;
+            }
+            return frame;
+        }
+
+        /**
+         * Accounts for a cached schema embedded in the schema being built.
+         */
+        void reuse(Frame shape) {
+            Frame parent = frames.peek();
+            if (parent == null) {
+                return;
+            }
+            nodes += shape.nodes;
+            parent.visited.addAll(shape.visited);
+            parent.height = Math.max(parent.height, shape.height + 1);
+            parent.depthTruncated |= shape.depthTruncated;
+            parent.nodesTruncated |= shape.nodesTruncated;
+        }
+
+        void visit(Set<String> keys) {
+            if (!frames.isEmpty()) {
+                frames.peek().visited.addAll(keys);
+            }
+        }
+
+        void depthTruncated() {
+            if (!frames.isEmpty()) {
+                frames.peek().depthTruncated = true;
+            }
+        }
+
+        boolean takeNode(int maxNodes) {
+            if (nodes < maxNodes) {
+                nodes++;
+                return true;
+            }
+            if (!frames.isEmpty()) {
+                frames.peek().nodesTruncated = true;
+            }
+            return false;
+        }
+    }
+
+    private Map<String, Object> readOnlySchema(Map<String, Object> schema) {
+        Map<String, Object> copy = new LinkedHashMap<>(schema);
+        copy.computeIfPresent("items", (key, items) -> items instanceof Map
+                ? Collections.unmodifiableMap((Map<?, ?>) items)
+                : items);
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Replaces a top-level body schema with a reference when shared schemas are enabled.
+     */
+    private Map<String, Object> shareable(String key, Map<String, Object> schema) {
+        if (!sharedSchemas || schema == null) {
+            return schema;
+        }
+        referencedSchemas.add(key);
+        Map<String, Object> reference = new LinkedHashMap<>();
+        reference.put("$ref", "#/schemas/" + key);
+        return reference;
+    }
+
+    /**
+     * Schemas referenced from endpoints when shared schemas are enabled, sorted by key.
+     */
+    public Map<String, Object> getSharedSchemas() {
+        if (!sharedSchemas) {
+            return null;
         }
+        Map<String, Object> schemas = new TreeMap<>();
+        referencedSchemas.forEach(key -> {
+            CachedSchema cached = schemaCache.get(key);
+            if (cached != null && cached.schema != null) {
+                schemas.put(key, cached.schema);
+            }
+        });
+        return schemas;
+    }
+
+    /**
+     * Drops cached schemas whose recorded dependencies are affected by a change, along with
+     * every schema built on top of them, since nested schemas record their dependencies too.
+     * Schemas are only recorded with dependencies while a {@link DependencyRecorder} recording is active.
+     *
+     * @return the number of dropped schemas
+     */
+    public int invalidateSchemas(Predicate<Set<String>> affected) {
+        int before = schemaCache.size() + enumSchemas.size();
+        schemaCache.values().removeIf(cached -> affected.test(cached.dependencies));
+        enumSchemas.values().removeIf(cached -> affected.test(cached.dependencies));
+        return before - schemaCache.size() - enumSchemas.size();
+    }
+
+    /**
+     * The cached schemas and enums with the fingerprints of their dependencies, to be restored
+     * by a later run, together with the still valid entries of the restored snapshot that this
+     * run did not use. Schemas resolved without a {@link DependencyRecorder} recording have no
+     * known dependencies and are left out.
+     *
+     * @param fingerprints fingerprints of a set of recorded dependencies
+     */
+    public SchemaSnapshot snapshotSchemas(Function<Set<String>, Map<String, String>> fingerprints) {
+        // Entries of the previous snapshot are kept even if this run did not need any of them
+        loadSnapshot();
+        List<SchemaSnapshot.Dependency> dependencies = new ArrayList<>();
+        Map<SchemaSnapshot.Dependency, Integer> positions = new HashMap<>();
+        Function<Map<String, String>, int[]> positionsOf = fingerprinted -> fingerprinted.entrySet().stream()
+                .mapToInt(dependency -> positions.computeIfAbsent(
+                        new SchemaSnapshot.Dependency(dependency.getKey(), dependency.getValue()), added -> {
+                            dependencies.add(added);
+                            return dependencies.size() - 1;
+                        }))
+                .toArray();
+        List<SchemaSnapshot.Entry> schemas = snapshotEntries(schemaCache, snapshotSchemas, fingerprints, positionsOf);
+        List<SchemaSnapshot.Entry> enums = snapshotEntries(enumSchemas, snapshotEnums, fingerprints, positionsOf);
+        return SchemaSnapshot.builder()
+                .dependencies(dependencies)
+                .schemas(schemas)
+                .enums(enums)
+                .build();
+    }
 
-        File[] subdirs = directory.listFiles(File::isDirectory);
-        if (subdirs != null) {
-            for (File subdir : subdirs) {
-                addSourceDirectories(solver, subdir);
+    private List<SchemaSnapshot.Entry> snapshotEntries(Map<String, CachedSchema> cache,
+                                                       Map<String, SchemaSnapshot.Entry> unused,
+                                                       Function<Set<String>, Map<String, String>> fingerprints,
+                                                       Function<Map<String, String>, int[]> positionsOf) {
+        Map<String, SchemaSnapshot.Entry> entries = new TreeMap<>();
+        unused.forEach((key, entry) -> {
+            Map<String, String> stored = storedDependencies(entry);
+            if (snapshotDependencies.apply(stored).isPresent()) {
+                entries.put(key, SchemaSnapshot.Entry.builder()
+                        .key(key)
+                        .schema(entry.getSchema())
+                        .dependencies(positionsOf.apply(stored))
+                        .shape(entry.getShape())
+                        .build());
             }
+        });
+        cache.forEach((key, cached) -> {
+            if (cached.dependencies.isEmpty()) {
+                return;
+            }
+            try {
+                entries.put(key, SchemaSnapshot.Entry.builder()
+                        .key(key)
+                        .schema(cached.encoded())
+                        .dependencies(positionsOf.apply(fingerprints.apply(cached.dependencies)))
+                        .shape(cached.shape != null ? cached.shape.toShape() : null)
+                        .build());
+            } catch (IOException e) {
+                log.debug("Could not encode schema {}: {}", key, e.getMessage());
+            }
+        });
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Dependencies of a restored snapshot entry with the fingerprints stored for them.
+     */
+    private Map<String, String> storedDependencies(SchemaSnapshot.Entry entry) {
+        Map<String, String> stored = new HashMap<>();
+        for (int position : entry.getDependencies()) {
+            SchemaSnapshot.Dependency dependency = snapshotDependencyTable.get(position);
+            stored.put(dependency.getKey(), dependency.getFingerprint());
         }
+        return stored;
+    }
+
+    /**
+     * Makes the schemas of an earlier run available to this one. The snapshot is read when the
+     * first schema is not found in the cache, so a run that resolves nothing does not read it.
+     * An entry is taken over into the cache the first time its schema is asked for, if its
+     * dependencies are unchanged by then; until then it is neither decoded nor checked.
+     *
+     * @param snapshot reads the snapshot, if there is one
+     * @param dependencies the recorded dependencies of an entry, or empty if any of them changed since
+     */
+    public void restoreSchemas(Supplier<Optional<SchemaSnapshot>> snapshot,
+                               Function<Map<String, String>, Optional<Set<String>>> dependencies) {
+        synchronized (snapshotLock) {
+            snapshotDependencies = dependencies;
+            pendingSnapshot = snapshot;
+        }
+    }
+
+    /**
+     * Reads the snapshot passed to {@link #restoreSchemas} if it was not read yet.
+     */
+    private void loadSnapshot() {
+        if (pendingSnapshot == null) {
+            return;
+        }
+        synchronized (snapshotLock) {
+            if (pendingSnapshot == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            Optional<SchemaSnapshot> snapshot = pendingSnapshot.get();
+            snapshot.ifPresent(loaded -> {
+                snapshotDependencyTable = loaded.getDependencies() != null ? loaded.getDependencies() : List.of();
+                int available = addEntries(loaded.getSchemas(), snapshotSchemas) + addEntries(loaded.getEnums(), snapshotEnums);
+                log.info("Schema snapshot: loaded {} schemas in {} ms", available, (System.nanoTime() - start) / 1_000_000);
+            });
+            pendingSnapshot = null;
+        }
+    }
+
+    private static int addEntries(List<SchemaSnapshot.Entry> entries, Map<String, SchemaSnapshot.Entry> target) {
+        if (entries == null) {
+            return 0;
+        }
+        entries.forEach(entry -> target.put(entry.getKey(), entry));
+        return entries.size();
+    }
+
+    /**
+     * Takes over a schema of the restored snapshot into the cache. The entry is removed first,
+     * so only one thread decodes it; a thread that misses it meanwhile builds the schema itself.
+     *
+     * @return null if the snapshot has no entry for the key or its dependencies changed
+     */
+    private CachedSchema restoreSchema(String key, Map<String, SchemaSnapshot.Entry> entries, Map<String, CachedSchema> cache) {
+        loadSnapshot();
+        SchemaSnapshot.Entry entry = entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        Optional<Set<String>> dependencies = snapshotDependencies.apply(storedDependencies(entry));
+        if (dependencies.isEmpty()) {
+            return null;
+        }
+        try {
+            Map<String, Object> schema = entry.getSchema() != null
+                    ? readOnlySchema(SNAPSHOT_MAPPER.readValue(entry.getSchema(), SCHEMA_TYPE))
+                    : null;
+            CachedSchema cached = new CachedSchema(schema, dependencies.get(),
+                    entry.getShape() != null ? new ResolutionScope.Frame(entry.getShape()) : null);
+            cached.encoded = entry.getSchema();
+            cache.put(key, cached);
+            restoredSchemas.increment();
+            return cached;
+        } catch (IOException e) {
+            log.debug("Could not decode restored schema {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Starts a new set of referenced shared schemas, so a repeated analysis only reports the
+     * schemas its own endpoints refer to.
+     */
+    public void clearReferencedSchemas() {
+        referencedSchemas.clear();
+    }
+
+    /**
+     * A single shared schema by key, or null if it was not resolved.
+     */
+    public Map<String, Object> getSharedSchema(String key) {
+        CachedSchema cached = schemaCache.get(key);
+        return cached != null ? cached.schema : null;
+    }
+
+    /**
+     * Schemas taken over from a restored snapshot instead of being resolved.
+     */
+    public long getRestoredSchemas() {
+        return restoredSchemas.sum();
+    }
+
+    public long getSchemaCacheHits() {
+        return schemaCacheHits.sum();
+    }
+
+    public long getSchemaCacheMisses() {
+        return schemaCacheMisses.sum();
+    }
+
+    /**
+     * Runs a top-level resolution and records how long it took.
+     */
+    private Map<String, Object> timed(Supplier<Map<String, Object>> resolution) {
+        long start = System.nanoTime();
+        try {
+            return resolution.get();
+        } finally {
+            resolutionNanos.add(System.nanoTime() - start);
+            resolutionCount.increment();
+        }
+    }
+
+    /**
+     * The described type with its generic arguments, e.g. {@code com.example.Page<com.example.Order>}.
+     */
+    private String describe(Type type) {
+        return type.resolve().describe();
+    }
+
+    public long getResolutionCount() {
+        return resolutionCount.sum();
+    }
+
+    public long getResolutionMillis() {
+        return resolutionNanos.sum() / 1_000_000;
+    }
+
+    /**
+     * Number of schemas that were reported as unresolved.
+     */
+    public long getResolutionFailures() {
+        return resolutionFailures.sum();
+    }
+
+    /**
+     * Schema builds that took longest, keyed like the schema cache. Times include nested types.
+     */
+    public List<TimedEntry> getSlowestTypes() {
+        return slowestTypes.getEntries();
     }
 
     private String normalizeType(String type) {
@@ -107,9 +733,10 @@ public class TypeResolver {
     }
 
     private Map<String, Object> createUnresolvedType(String reason) {
+        resolutionFailures.increment();
         Map<String, Object> unresolved = new LinkedHashMap<>();
         unresolved.put("_unresolved", true);
-        unresolved.put("_reason", reason);
+        unresolved.put(REASON, reason);
         return unresolved;
     }
 
@@ -123,13 +750,15 @@ public class TypeResolver {
             return createUnresolvedType("Type is null");
         }
 
-        try {
-            return resolveFields(type.resolve());
-        } catch (Exception e) {
-            return createUnresolvedType(
-                "Failed to resolve type: " + e.getMessage()
-            );
-        }
+        return timed(() -> {
+            try {
+                return resolveFields(type.resolve());
+            } catch (Exception e) {
+                return createUnresolvedType(
+                    "Failed to resolve type: " + e.getMessage()
+                );
+            }
+        });
     }
 
     private Map<String, Object> resolveFields(ResolvedType resolvedType) {
@@ -145,56 +774,75 @@ public class TypeResolver {
                 return createFieldDefinition(normalizeType(qualifiedName), false);
             }
 
+            if (resolvedType.isReferenceType() && isEnum(qualifiedName)) {
+                return enumField(qualifiedName, false);
+            }
+
             // For class types, get all fields including inherited ones
             if (resolvedType.isReferenceType()) {
-                Map<String, Object> fields = new LinkedHashMap<>();
-                ResolvedReferenceType referenceType = resolvedType.asReferenceType();
-                
-                // Get fields from all ancestor classes
-                List<ResolvedReferenceType> ancestors = new ArrayList<>();
-                ancestors.add(referenceType);
-                ancestors.addAll(referenceType.getAllAncestors());
-
-                for (ResolvedReferenceType ancestor : ancestors) {
-                    // Skip java.lang.Object
-                    if (ancestor.getQualifiedName().equals("java.lang.Object")) {
-                        continue;
-                    }
+                return cachedSchema("fields:" + qualifiedName, qualifiedName, () -> resolveReferenceFields(resolvedType));
+            }
+
+            return createFieldDefinition(normalizeType(qualifiedName), false);
+        } catch (Exception e) {
+            log.warn("Could not resolve type: {}, error: {}", resolvedType, e.getMessage());
+            return createFieldDefinition(normalizeType(resolvedType.describe()), false);
+        }
+    }
 
-                    // Get declared fields for this class/interface
-                    for (ResolvedFieldDeclaration field : ancestor.getDeclaredFields()) {
-                        String fieldName = field.getName();
-                        ResolvedType fieldType = field.getType();
+    private Map<String, Object> resolveReferenceFields(ResolvedType resolvedType) {
+        try {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            ResolvedReferenceType referenceType = resolvedType.asReferenceType();
+            
+            // Get fields from all ancestor classes
+            List<ResolvedReferenceType> ancestors = new ArrayList<>();
+            ancestors.add(referenceType);
+            ancestors.addAll(referenceType.getAllAncestors());
+
+            int included = 0;
+            for (ResolvedReferenceType ancestor : ancestors) {
+                // Skip java.lang.Object
+                if (ancestor.getQualifiedName().equals("java.lang.Object")) {
+                    continue;
+                }
 
-                        // Skip if already processed (child class fields take precedence)
-                        if (fields.containsKey(fieldName)) {
-                            continue;
-                        }
+                // Get declared fields for this class/interface
+                for (ResolvedFieldDeclaration field : ancestor.getDeclaredFields()) {
+                    String fieldName = field.getName();
+                    ResolvedType fieldType = field.getType();
 
-                        // Check for JPA relations and transient fields
-                        if (isTransientField(field) || isJpaRelation(field)) {
-                            continue;
-                        }
+                    // Skip if already processed (child class fields take precedence)
+                    if (fields.containsKey(fieldName)) {
+                        continue;
+                    }
 
-                        // Process the field
-                        if (isCollectionType(fieldType.describe())) {
-                            Map<String, Object> collectionType = handleCollectionType(fieldType);
-                            fields.put(fieldName, collectionType);
-                        } else if (isJavaType(fieldType.describe())) {
-                            fields.put(fieldName, createFieldDefinition(normalizeType(fieldType.describe()), false));
-                        } else {
-                            Map<String, Object> customType = resolveFields(fieldType);
-                            fields.put(fieldName, customType != null ? 
-                                    customType : 
-                                    createFieldDefinition(normalizeType(fieldType.describe()), false));
-                        }
+                    // Check for JPA relations and transient fields
+                    if (isTransientField(field) || isJpaRelation(field)) {
+                        continue;
+                    }
+                    String truncated = admitField(included++);
+                    if (truncated != null) {
+                        markTruncated(fields, truncated);
+                        return fields;
+                    }
+
+                    // Process the field
+                    if (isCollectionType(fieldType.describe())) {
+                        Map<String, Object> collectionType = handleCollectionType(fieldType);
+                        fields.put(fieldName, collectionType);
+                    } else if (isPlainJavaType(fieldType.describe())) {
+                        fields.put(fieldName, createFieldDefinition(normalizeType(fieldType.describe()), false));
+                    } else {
+                        Map<String, Object> customType = resolveFields(fieldType);
+                        fields.put(fieldName, customType != null ? 
+                                customType : 
+                                createFieldDefinition(normalizeType(fieldType.describe()), false));
                     }
                 }
-                
-                return fields.isEmpty() ? null : fields;
             }
-
-            return createFieldDefinition(normalizeType(qualifiedName), false);
+            
+            return fields.isEmpty() ? null : fields;
         } catch (Exception e) {
             log.warn("Could not resolve type: {}, error: {}", resolvedType, e.getMessage());
             return createFieldDefinition(normalizeType(resolvedType.describe()), false);
@@ -202,32 +850,38 @@ public class TypeResolver {
     }
 
     private boolean isTransientField(ResolvedFieldDeclaration field) {
-        try {
-            return field.toAst()
-                    .filter(f -> f instanceof FieldDeclaration)
-                    .map(f -> (FieldDeclaration) f)
-                    .map(f -> f.getAnnotations().stream()
-                            .map(AnnotationExpr::getNameAsString)
-                            .anyMatch(name -> name.equals("Transient")))
-                    .orElse(false);
-        } catch (Exception e) {
-            log.debug("Could not check transient for field: {}", field.getName());
-            return false;
-        }
+        return fieldAnnotationNames(field).stream()
+                .anyMatch(name -> name.equals("Transient"));
     }
 
     private boolean isJpaRelation(ResolvedFieldDeclaration field) {
+        return fieldAnnotationNames(field).stream()
+                .anyMatch(name -> name.matches("OneToMany|ManyToOne|OneToOne|ManyToMany"));
+    }
+
+    /**
+     * Simple names of a field's annotations, from its source or, for a field of a jar class, from the jar index.
+     */
+    private List<String> fieldAnnotationNames(ResolvedFieldDeclaration field) {
         try {
-            return field.toAst()
+            Optional<FieldDeclaration> declaration = field.toAst()
                     .filter(f -> f instanceof FieldDeclaration)
-                    .map(f -> (FieldDeclaration) f)
-                    .map(f -> f.getAnnotations().stream()
-                            .map(AnnotationExpr::getNameAsString)
-                            .anyMatch(name -> name.matches("OneToMany|ManyToOne|OneToOne|ManyToMany")))
-                    .orElse(false);
+                    .map(f -> (FieldDeclaration) f);
+            if (declaration.isPresent()) {
+                return declaration.get().getAnnotations().stream()
+                        .map(AnnotationExpr::getNameAsString)
+                        .collect(Collectors.toList());
+            }
+            JarClassIndex jarClassIndex = context.getJarClassIndex();
+            if (jarClassIndex == null) {
+                return List.of();
+            }
+            return jarClassIndex.getFieldAnnotations(field.declaringType().getQualifiedName(), field.getName()).stream()
+                    .map(name -> name.substring(name.lastIndexOf('.') + 1))
+                    .collect(Collectors.toList());
         } catch (Exception e) {
-            log.debug("Could not check JPA relations for field: {}", field.getName());
-            return false;
+            log.debug("Could not read annotations of field: {}", field.getName());
+            return List.of();
         }
     }
 
@@ -248,6 +902,11 @@ public class TypeResolver {
             result.put("type", "array");
             result.put("required", false);
 
+            if (isEnum(genericTypeName)) {
+                result.put("items", resolveEnum(genericTypeName));
+                return result;
+            }
+
             // For complex types, try to resolve their fields
             try {
                 Optional<ClassOrInterfaceDeclaration> dtoClass = findClass(genericTypeName);
@@ -294,176 +953,289 @@ public class TypeResolver {
         return Map.of("type", "map");
     }
 
-    private Map<String, Object> resolveCustomType(Type type) {
-        try {
-            String qualifiedName = type.asString();
-
-            // Check if type is an Enum
-            try {
-                Class<?> clazz = Class.forName(qualifiedName);
-                if (clazz.isEnum()) {
-                    return resolveEnumType(clazz);
-                }
-            } catch (ClassNotFoundException ignored) {
-                // Continue with normal type resolution
+    /**
+     * Schema of an enum declared in the sources, in a dependency jar or on the analyzer's own class
+     * path, such as a JDK enum: the type of the values Jackson writes and the values themselves. Enums are leaves, so their schemas are cached per
+     * enum regardless of nesting and limits; types that are not enums are cached as misses.
+     *
+     * @return null if the type is not a known enum
+     */
+    private Map<String, Object> resolveEnum(String qualifiedName) {
+        CachedSchema cached = enumSchemas.get(qualifiedName);
+        if (cached == null) {
+            cached = restoreSchema(qualifiedName, snapshotEnums, enumSchemas);
+        }
+        if (cached == null) {
+            boolean recording = DependencyRecorder.isRecording();
+            if (recording) {
+                DependencyRecorder.begin();
             }
-
-            // Reset processed types for new resolution
-            processedTypes.clear();
-
-            // Find and parse the DTO class
-            Optional<ClassOrInterfaceDeclaration> dtoClass = findClass(qualifiedName);
-            if (dtoClass.isPresent()) {
-                return extractFields(dtoClass.get());
+            Map<String, Object> schema = null;
+            Set<String> dependencies;
+            try {
+                schema = context.getClassIndex().findEnum(qualifiedName)
+                        .map(this::buildEnumSchema)
+                        .or(() -> solveEnum(qualifiedName).map(this::buildEnumSchema))
+                        .map(this::readOnlySchema)
+                        .orElse(null);
+            } catch (Exception e) {
+                log.debug("Could not resolve enum {}: {}", qualifiedName, e.getMessage());
+            } finally {
+                dependencies = recording ? DependencyRecorder.end() : Set.of();
             }
+            enumSchemas.putIfAbsent(qualifiedName, new CachedSchema(schema, dependencies, null));
+            return schema;
+        }
+        DependencyRecorder.recordAll(cached.dependencies);
+        return cached.schema;
+    }
 
-        } catch (Exception e) {
-            log.warn("Could not resolve type {}: {}", type, e.getMessage());
-            return Map.of("type", normalizeType(type.asString()));
+    /**
+     * Looks up an enum that neither the sources nor the indexed jars declare through the symbol solver.
+     */
+    private Optional<ResolvedEnumDeclaration> solveEnum(String qualifiedName) {
+        JarClassIndex jarClassIndex = context.getJarClassIndex();
+        if (context.getClassIndex().findFile(qualifiedName).isPresent()
+                || (jarClassIndex != null && jarClassIndex.contains(qualifiedName))) {
+            return Optional.empty();
         }
-        return Map.of();
+        return context.getTypeSolver().tryToSolveType(qualifiedName).getDeclaration()
+                .filter(ResolvedReferenceTypeDeclaration::isEnum)
+                .map(ResolvedReferenceTypeDeclaration::asEnum);
     }
 
     /**
-     * Processes enum types, including their values and @JsonValue annotations.
-     * @return Map containing enum type and possible values
+     * Schema of an enum known only to the symbol solver: the constant names, typed by a
+     * {@code getValue()} or {@code value()} method. Annotations of such enums are not visible,
+     * so {@code @JsonProperty} and {@code @JsonValue} do not apply.
      */
-    private Map<String, Object> resolveEnumType(Class<?> enumClass) {
-        try {
-            Object[] enumConstants = enumClass.getEnumConstants();
-            if (enumConstants == null || enumConstants.length == 0) {
-                return Map.of("type", "string", "enum", new ArrayList<>());
-            }
+    private Map<String, Object> buildEnumSchema(ResolvedEnumDeclaration enumDeclaration) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("type", enumDeclaration.getDeclaredMethods().stream()
+                .filter(method -> method.getNumberOfParams() == 0
+                        && (method.getName().equals("getValue") || method.getName().equals("value")))
+                .sorted(Comparator.comparing(method -> method.getName().equals("getValue") ? 0 : 1))
+                .map(method -> enumValueTypeName(method.getReturnType().describe()))
+                .findFirst()
+                .orElse("string"));
+        result.put("enum", enumDeclaration.getEnumConstants().stream()
+                .map(ResolvedEnumConstantDeclaration::getName)
+                .collect(Collectors.toList()));
+        return result;
+    }
 
-            // Try to find the most common return type from enum methods
-            String valueType = findEnumValueType(enumClass);
-            List<Object> enumValues = new ArrayList<>();
-            
-            for (Object enumConstant : enumConstants) {
-                enumValues.add(enumConstant.toString());
-            }
+    private boolean isEnum(String qualifiedName) {
+        return resolveEnum(qualifiedName) != null;
+    }
 
-            Map<String, Object> result = new HashMap<>();
-            result.put("type", valueType);
-            result.put("enum", enumValues);
-            return result;
+    /**
+     * An enum field of a request: the enum's schema with the field's required flag.
+     */
+    private Map<String, Object> enumField(String qualifiedName, boolean required) {
+        Map<String, Object> field = new LinkedHashMap<>(resolveEnum(qualifiedName));
+        field.put("required", required);
+        return field;
+    }
 
-        } catch (Exception e) {
-            log.warn("Could not resolve enum type {}: {}", enumClass.getName(), e.getMessage());
-            return Map.of("type", "string");
+    /**
+     * Reads an enum's values the way Jackson writes them: the constant names, renamed by
+     * {@code @JsonProperty}, or the values of a {@code @JsonValue} method or field where each
+     * constant passes them as literals to the constructor. The value type comes from the
+     * {@code @JsonValue} member, otherwise from a {@code getValue()} or {@code value()} method.
+     */
+    private Map<String, Object> buildEnumSchema(EnumDeclaration enumDeclaration) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("type", enumValueType(enumDeclaration));
+        if (!hasJsonValue(enumDeclaration)) {
+            result.put("enum", enumDeclaration.getEntries().stream()
+                    .map(constant -> constant.getAnnotations().stream()
+                            .filter(annotation -> annotation.getName().getIdentifier().equals("JsonProperty"))
+                            .findFirst()
+                            .map(this::getJsonPropertyValue)
+                            .orElse(constant.getNameAsString()))
+                    .collect(Collectors.toList()));
+        } else {
+            // Without literal constructor arguments the values are unknown; the type is still reported
+            jsonValueField(enumDeclaration)
+                    .flatMap(field -> constructorLiterals(enumDeclaration, field))
+                    .ifPresent(values -> result.put("enum", values));
         }
+        return result;
     }
 
-    private String findEnumValueType(Class<?> enumClass) {
-        // Check for common value methods
-        try {
-            // First check for @JsonValue annotation
-            Method jsonValueMethod = findJsonValueMethod(enumClass);
-            if (jsonValueMethod != null) {
-                return getTypeForClass(jsonValueMethod.getReturnType());
-            }
-
-            // Then check for getValue or value method
-            Method valueMethod = findValueMethod(enumClass);
-            if (valueMethod != null) {
-                return getTypeForClass(valueMethod.getReturnType());
-            }
-        } catch (Exception ignored) {
-            // Fall back to string if we can't determine the value type
-        }
+    private boolean hasJsonValue(EnumDeclaration enumDeclaration) {
+        return enumDeclaration.getMethods().stream().anyMatch(TypeResolver::isJsonValueMethod)
+                || enumDeclaration.getFields().stream().anyMatch(field -> hasAnnotation(field, "JsonValue"));
+    }
 
-        return "string";
+    private static boolean isJsonValueMethod(MethodDeclaration method) {
+        return method.getParameters().isEmpty() && method.getAnnotations().stream()
+                .anyMatch(annotation -> annotation.getName().getIdentifier().equals("JsonValue"));
     }
 
-    private Method findJsonValueMethod(Class<?> enumClass) {
-        for (Method method : enumClass.getDeclaredMethods()) {
-            if (method.isAnnotationPresent(JsonValue.class)) {
-                return method;
-            }
+    private String enumValueType(EnumDeclaration enumDeclaration) {
+        Optional<Type> valueType = enumDeclaration.getMethods().stream()
+                .filter(TypeResolver::isJsonValueMethod)
+                .map(MethodDeclaration::getType)
+                .findFirst();
+        if (valueType.isEmpty()) {
+            valueType = enumDeclaration.getFields().stream()
+                    .filter(field -> hasAnnotation(field, "JsonValue"))
+                    .map(field -> field.getVariable(0).getType())
+                    .findFirst();
         }
-        return null;
+        if (valueType.isEmpty()) {
+            valueType = enumDeclaration.getMethods().stream()
+                    .filter(method -> method.getParameters().isEmpty()
+                            && (method.getNameAsString().equals("getValue") || method.getNameAsString().equals("value")))
+                    .sorted(Comparator.comparing(method -> method.getNameAsString().equals("getValue") ? 0 : 1))
+                    .map(MethodDeclaration::getType)
+                    .findFirst();
+        }
+        return valueType.map(type -> enumValueTypeName(type.asString())).orElse("string");
     }
 
-    private Method findValueMethod(Class<?> enumClass) {
-        try {
-            return enumClass.getMethod("getValue");
-        } catch (NoSuchMethodException e1) {
-            try {
-                return enumClass.getMethod("value");
-            } catch (NoSuchMethodException e2) {
-                return null;
-            }
+    private static String enumValueTypeName(String type) {
+        switch (type) {
+            case "int":
+            case "Integer":
+            case "java.lang.Integer":
+                return "integer";
+            case "long":
+            case "Long":
+            case "java.lang.Long":
+                return "long";
+            case "double":
+            case "Double":
+            case "java.lang.Double":
+                return "double";
+            case "boolean":
+            case "Boolean":
+            case "java.lang.Boolean":
+                return "boolean";
+            default:
+                return "string";
         }
     }
 
-    private String getTypeForClass(Class<?> clazz) {
-        if (clazz == String.class) return "string";
-        if (clazz == Integer.class || clazz == int.class) return "integer";
-        if (clazz == Long.class || clazz == long.class) return "long";
-        if (clazz == Double.class || clazz == double.class) return "double";
-        if (clazz == Boolean.class || clazz == boolean.class) return "boolean";
-        return "string";
+    /**
+     * The field whose value Jackson writes for a constant: a field annotated with {@code @JsonValue},
+     * or the field a {@code @JsonValue} method returns.
+     */
+    private Optional<String> jsonValueField(EnumDeclaration enumDeclaration) {
+        Optional<String> annotatedField = enumDeclaration.getFields().stream()
+                .filter(field -> hasAnnotation(field, "JsonValue"))
+                .map(field -> field.getVariable(0).getNameAsString())
+                .findFirst();
+        if (annotatedField.isPresent()) {
+            return annotatedField;
+        }
+        return enumDeclaration.getMethods().stream()
+                .filter(TypeResolver::isJsonValueMethod)
+                .findFirst()
+                .flatMap(MethodDeclaration::getBody)
+                .filter(body -> body.getStatements().size() == 1 && body.getStatement(0).isReturnStmt())
+                .flatMap(body -> body.getStatement(0).asReturnStmt().getExpression())
+                .flatMap(TypeResolver::fieldName);
     }
 
-    private Optional<ClassOrInterfaceDeclaration> findClass(String qualifiedName) {
-        try {
-            String[] parts = qualifiedName.split("\\.");
-            String className = parts[parts.length - 1];
-            
-            // First try with full qualified name
-            File file = new File(sourceRoot + "/" + String.join("/", parts) + ".java");
-            if (file.exists()) {
-                return parseAndFindClass(file, className);
+    /**
+     * The value each constant passes for a field to the constructor, if every constant passes a literal.
+     */
+    private Optional<List<Object>> constructorLiterals(EnumDeclaration enumDeclaration, String fieldName) {
+        for (ConstructorDeclaration constructor : enumDeclaration.getConstructors()) {
+            OptionalInt parameter = assignedParameter(constructor, fieldName);
+            if (parameter.isEmpty()) {
+                continue;
             }
-
-            // If not found, search recursively in source directory
-            return searchClassInDirectory(new File(sourceRoot), className);
-
-        } catch (Exception e) {
-            log.warn("Could not find class {}: {}", qualifiedName, e.getMessage());
+            int count = constructor.getParameters().size();
+            List<Object> values = new ArrayList<>();
+            for (EnumConstantDeclaration constant : enumDeclaration.getEntries()) {
+                if (constant.getArguments().size() != count) {
+                    // Created by another constructor
+                    return Optional.empty();
+                }
+                Optional<Object> value = literalValue(constant.getArgument(parameter.getAsInt()));
+                if (value.isEmpty()) {
+                    return Optional.empty();
+                }
+                values.add(value.get());
+            }
+            return Optional.of(values);
         }
         return Optional.empty();
     }
 
-    private Optional<ClassOrInterfaceDeclaration> searchClassInDirectory(File directory, String className) {
-        if (!directory.isDirectory()) {
-            return Optional.empty();
+    /**
+     * Index of the constructor parameter assigned to a field with {@code this.field = parameter}.
+     */
+    private static OptionalInt assignedParameter(ConstructorDeclaration constructor, String fieldName) {
+        for (AssignExpr assignment : constructor.getBody().findAll(AssignExpr.class)) {
+            if (assignment.getOperator() != AssignExpr.Operator.ASSIGN
+                    || !fieldName(assignment.getTarget()).filter(fieldName::equals).isPresent()
+                    || !assignment.getValue().isNameExpr()) {
+                continue;
+            }
+            String parameterName = assignment.getValue().asNameExpr().getNameAsString();
+            for (int i = 0; i < constructor.getParameters().size(); i++) {
+                if (constructor.getParameter(i).getNameAsString().equals(parameterName)) {
+                    return OptionalInt.of(i);
+                }
+            }
         }
+        return OptionalInt.empty();
+    }
 
-        File[] files = directory.listFiles();
-        if (files == null) {
-            return Optional.empty();
+    private static Optional<String> fieldName(Expression expression) {
+        if (expression.isNameExpr()) {
+            return Optional.of(expression.asNameExpr().getNameAsString());
         }
-
-        // First search in current directory
-        for (File file : files) {
-            if (file.isFile() && file.getName().equals(className + ".java")) {
-                return parseAndFindClass(file, className);
-            }
+        if (expression.isFieldAccessExpr() && expression.asFieldAccessExpr().getScope().isThisExpr()) {
+            return Optional.of(expression.asFieldAccessExpr().getNameAsString());
         }
+        return Optional.empty();
+    }
 
-        // Then search in subdirectories
-        for (File file : files) {
-            if (file.isDirectory()) {
-                Optional<ClassOrInterfaceDeclaration> result = searchClassInDirectory(file, className);
-                if (result.isPresent()) {
-                    return result;
+    private static Optional<Object> literalValue(Expression expression) {
+        if (expression.isStringLiteralExpr()) {
+            return Optional.of(expression.asStringLiteralExpr().asString());
+        }
+        if (expression.isCharLiteralExpr()) {
+            return Optional.of(String.valueOf(expression.asCharLiteralExpr().asChar()));
+        }
+        if (expression.isIntegerLiteralExpr()) {
+            return Optional.of(expression.asIntegerLiteralExpr().asNumber());
+        }
+        if (expression.isLongLiteralExpr()) {
+            return Optional.of(expression.asLongLiteralExpr().asNumber());
+        }
+        if (expression.isDoubleLiteralExpr()) {
+            return Optional.of(expression.asDoubleLiteralExpr().asDouble());
+        }
+        if (expression.isBooleanLiteralExpr()) {
+            return Optional.of(expression.asBooleanLiteralExpr().getValue());
+        }
+        if (expression.isUnaryExpr() && expression.asUnaryExpr().getOperator() == UnaryExpr.Operator.MINUS) {
+            return literalValue(expression.asUnaryExpr().getExpression()).map(value -> {
+                if (value instanceof Integer) {
+                    return (Object) (-(Integer) value);
                 }
-            }
+                if (value instanceof Long) {
+                    return -(Long) value;
+                }
+                return value instanceof Double ? (Object) (-(Double) value) : null;
+            });
         }
-
         return Optional.empty();
     }
 
-    private Optional<ClassOrInterfaceDeclaration> parseAndFindClass(File file, String className) {
+    private Optional<ClassOrInterfaceDeclaration> findClass(String qualifiedName) {
         try {
-            log.debug("Trying to parse file: {}", file.getAbsolutePath());
-            CompilationUnit cu = StaticJavaParser.parse(file);
-            return cu.getClassByName(className);
+            return context.getClassIndex().findClass(qualifiedName);
         } catch (Exception e) {
-            log.warn("Could not parse file {}: {}", file.getAbsolutePath(), e.getMessage());
-            return Optional.empty();
+            log.warn("Could not find class {}: {}", qualifiedName, e.getMessage());
         }
+        return Optional.empty();
     }
 
     private Map<String, Object> extractFields(ClassOrInterfaceDeclaration classDeclaration) {
@@ -487,7 +1259,7 @@ public class TypeResolver {
 
             // Get field name from @JsonProperty if present
             String fieldName = field.getAnnotations().stream()
-                .filter(a -> a.getNameAsString().equals("JsonProperty"))
+                .filter(a -> a.getName().getIdentifier().equals("JsonProperty"))
                 .findFirst()
                 .map(this::getJsonPropertyValue)
                 .orElse(field.getVariable(0).getNameAsString());
@@ -507,12 +1279,14 @@ public class TypeResolver {
                         collectionType.put("required", isRequired);
                         items.put(fieldName, collectionType);
                     }
-                } else if (isJavaType(qualifiedName)) {
+                } else if (isPlainJavaType(qualifiedName)) {
                     items.put(fieldName, createFieldDefinition(normalizeType(resolvedType.describe()), isRequired));
                 } else {
                     // For custom types (DTOs), check their @JsonIgnoreProperties too
                     Map<String, Object> customType = resolveFields(fieldType);
                     if (customType != null) {
+                        // Resolved schemas are cached read-only, so the field gets a copy
+                        customType = new LinkedHashMap<>(customType);
                         customType.put("required", isRequired);
                         items.put(fieldName, customType);
                     } else {
@@ -557,21 +1331,21 @@ public class TypeResolver {
     }
 
     private String getJsonPropertyValue(AnnotationExpr annotation) {
-        try {
-            // Check if it's a single value annotation: @JsonProperty("value")
-            if (!annotation.toString().contains("value=")) {
-                return annotation.toString()
-                    .replaceAll("@JsonProperty\\(\"(.+)\"\\)", "$1")
-                    .replaceAll("@com.fasterxml.jackson.annotation.JsonProperty\\(\"(.+)\"\\)", "$1");
-            }
-            
-            // If it has named parameters: @JsonProperty(value="value")
-            return annotation.toString()
-                .replaceAll(".*value\\s*=\\s*\"([^\"]+)\".*", "$1");
-        } catch (Exception e) {
-            log.debug("Could not extract JsonProperty value from: {}", annotation);
-            return null;
-        }
+        // @JsonProperty("value") or @JsonProperty(value = "value")
+        Optional<Expression> value = annotation.isSingleMemberAnnotationExpr()
+                ? Optional.of(annotation.asSingleMemberAnnotationExpr().getMemberValue())
+                : annotation.isNormalAnnotationExpr()
+                        ? annotation.asNormalAnnotationExpr().getPairs().stream()
+                                .filter(pair -> pair.getNameAsString().equals("value"))
+                                .map(MemberValuePair::getValue)
+                                .findFirst()
+                        : Optional.empty();
+        return value.filter(Expression::isStringLiteralExpr)
+                .map(expression -> expression.asStringLiteralExpr().asString())
+                .orElseGet(() -> {
+                    log.debug("Could not extract JsonProperty value from: {}", annotation);
+                    return null;
+                });
     }
 
     private boolean isCollectionType(String qualifiedName) {
@@ -580,10 +1354,12 @@ public class TypeResolver {
                qualifiedName.startsWith("java.util.Collection");
     }
 
-    private boolean isJavaType(String qualifiedName) {
-        return qualifiedName.startsWith("java.") || 
-               isPrimitiveType(qualifiedName) ||
-               isCommonType(qualifiedName);
+    /**
+     * A primitive or JDK type that is written as its name; JDK enums are not, they get their values.
+     */
+    private boolean isPlainJavaType(String qualifiedName) {
+        return isPrimitiveType(qualifiedName) || isCommonType(qualifiedName)
+                || (qualifiedName.startsWith("java.") && !isEnum(qualifiedName));
     }
 
     private boolean isPrimitiveType(String type) {
@@ -644,7 +1420,8 @@ public class TypeResolver {
         if (classDeclaration.getExtendedTypes().isNonEmpty()) {
             try {
                 String parentClassName = classDeclaration.getExtendedTypes().get(0).getNameAsString();
-                Optional<ClassOrInterfaceDeclaration> parentClass = findClass(parentClassName);
+                Optional<ClassOrInterfaceDeclaration> parentClass = context.getClassIndex()
+                        .findClass(parentClassName, classDeclaration.findCompilationUnit().orElse(null));
                 if (parentClass.isPresent()) {
                     return hasJsonIgnoreProperties(parentClass.get());
                 }
@@ -661,13 +1438,18 @@ public class TypeResolver {
             return null;
         }
 
-        try {
-            ResolvedType resolvedType = type.resolve();
-            return resolveRequestFields(resolvedType, isValidated);
-        } catch (Exception e) {
-            log.warn("Could not resolve request type: {}", type);
-            return createUnresolvedType("Could not resolve type: " + type.asString());
-        }
+        return timed(() -> {
+            try {
+                String typeName = describe(type);
+                if (isEnum(typeName)) {
+                    return resolveEnum(typeName);
+                }
+                return shareable(requestSchemaKey(typeName, isValidated), resolveRequestFields(typeName, isValidated));
+            } catch (Exception e) {
+                log.warn("Could not resolve request type: {}", type);
+                return createUnresolvedType("Could not resolve type: " + type.asString());
+            }
+        });
     }
 
     public Map<String, Object> resolveResponseBody(Type type) {
@@ -675,11 +1457,15 @@ public class TypeResolver {
             return null;
         }
 
+        return timed(() -> resolveResponseBodyType(type));
+    }
+
+    private Map<String, Object> resolveResponseBodyType(Type type) {
         try {
             // Special handling for ResponseEntity
             if (type.asString().startsWith("ResponseEntity")) {
                 try {
-                    return resolveResponseEntityType(type);
+                    return resolveResponseEntity(type);
                 } catch (Exception e) {
                     log.warn("Could not resolve ResponseEntity type: {}", type);
                     return createUnresolvedType("Could not resolve ResponseEntity type: " + type.asString());
@@ -688,8 +1474,11 @@ public class TypeResolver {
 
             // For all other types
             try {
-                ResolvedType resolvedType = type.resolve();
-                return resolveResponseFields(resolvedType);
+                String typeName = describe(type);
+                if (isEnum(typeName)) {
+                    return resolveEnum(typeName);
+                }
+                return shareable(responseSchemaKey(typeName), resolveResponseFields(typeName));
             } catch (Exception e) {
                 log.warn("Could not resolve response type: {}", type);
                 return createUnresolvedType("Could not resolve type: " + type.asString());
@@ -700,11 +1489,20 @@ public class TypeResolver {
         }
     }
 
-    private Map<String, Object> resolveRequestFields(ResolvedType resolvedType, boolean isValidated) {
+    /**
+     * Returns the request schema of a type, computing it only on the first request
+     * for the same type, generic arguments and validation flag.
+     */
+    private Map<String, Object> resolveRequestFields(String typeName, boolean isValidated) {
+        return cachedSchema(requestSchemaKey(typeName, isValidated), typeName,
+            () -> buildRequestSchema(typeName, isValidated));
+    }
+
+    private Map<String, Object> buildRequestSchema(String typeName, boolean isValidated) {
         Map<String, Object> result = new LinkedHashMap<>();
         
         // Get class declaration
-        Optional<ClassOrInterfaceDeclaration> classDecl = findClass(resolvedType.describe());
+        Optional<ClassOrInterfaceDeclaration> classDecl = findClass(typeName);
         if (classDecl.isEmpty()) {
             return null;
         }
@@ -723,16 +1521,27 @@ public class TypeResolver {
         result.put("items", items);
 
         // Process fields
-        extractRequestFields(classDecl.get(), items, isValidated);
+        String truncated = extractRequestFields(classDecl.get(), items, isValidated);
+        if (truncated != null) {
+            markTruncated(result, truncated);
+        }
 
         return result;
     }
 
-    private Map<String, Object> resolveResponseFields(ResolvedType resolvedType) {
+    /**
+     * Returns the response schema of a type, computing it only on the first request
+     * for the same type and generic arguments.
+     */
+    private Map<String, Object> resolveResponseFields(String typeName) {
+        return cachedSchema(responseSchemaKey(typeName), typeName, () -> buildResponseSchema(typeName));
+    }
+
+    private Map<String, Object> buildResponseSchema(String typeName) {
         Map<String, Object> result = new LinkedHashMap<>();
         
         // Get class declaration
-        Optional<ClassOrInterfaceDeclaration> classDecl = findClass(resolvedType.describe());
+        Optional<ClassOrInterfaceDeclaration> classDecl = findClass(typeName);
         if (classDecl.isEmpty()) {
             return null;
         }
@@ -742,21 +1551,32 @@ public class TypeResolver {
         result.put("items", items);
 
         // Process fields
-        extractResponseFields(classDecl.get(), items);
+        String truncated = extractResponseFields(classDecl.get(), items);
+        if (truncated != null) {
+            markTruncated(result, truncated);
+        }
 
         return result;
     }
 
-    private void extractRequestFields(ClassOrInterfaceDeclaration classDeclaration, Map<String, Object> fields, boolean isValidated) {
+    /**
+     * @return null, or the reason the fields were cut off by a limit
+     */
+    private String extractRequestFields(ClassOrInterfaceDeclaration classDeclaration, Map<String, Object> fields, boolean isValidated) {
+        int included = 0;
         for (FieldDeclaration field : classDeclaration.getFields()) {
             // Skip fields with @JsonIgnore or JPA relations
             if (hasAnnotation(field, "JsonIgnore") || hasJpaRelationAnnotation(field)) {
                 continue;
             }
+            String truncated = admitField(included++);
+            if (truncated != null) {
+                return truncated;
+            }
 
             // Get field name from @JsonProperty if present
             String fieldName = field.getAnnotations().stream()
-                .filter(a -> a.getNameAsString().equals("JsonProperty"))
+                .filter(a -> a.getName().getIdentifier().equals("JsonProperty"))
                 .findFirst()
                 .map(this::getJsonPropertyValue)
                 .orElse(field.getVariable(0).getNameAsString());
@@ -776,10 +1596,12 @@ public class TypeResolver {
                         collectionType.put("required", isRequired);
                         fields.put(fieldName, collectionType);
                     }
-                } else if (isJavaType(qualifiedName)) {
+                } else if (isPlainJavaType(qualifiedName)) {
                     fields.put(fieldName, createFieldDefinition(normalizeType(resolvedType.describe()), isRequired));
+                } else if (isEnum(qualifiedName)) {
+                    fields.put(fieldName, enumField(qualifiedName, isRequired));
                 } else {
-                    Map<String, Object> customType = resolveRequestFields(resolvedType, isValidated);
+                    Map<String, Object> customType = resolveRequestFields(resolvedType.describe(), isValidated);
                     if (customType != null) {
                         Map<String, Object> fieldDef = new LinkedHashMap<>();
                         fieldDef.put("type", normalizeType(resolvedType.describe()));
@@ -790,6 +1612,7 @@ public class TypeResolver {
                         if (customType.containsKey("items")) {
                             fieldDef.put("items", customType.get("items"));
                         }
+                        copyMarkers(customType, fieldDef);
                         fields.put(fieldName, fieldDef);
                     } else {
                         fields.put(fieldName, createFieldDefinition(normalizeType(fieldType.asString()), isRequired));
@@ -799,18 +1622,27 @@ public class TypeResolver {
                 fields.put(fieldName, createFieldDefinition(normalizeType(fieldType.asString()), false));
             }
         }
+        return null;
     }
 
-    private void extractResponseFields(ClassOrInterfaceDeclaration classDeclaration, Map<String, Object> fields) {
+    /**
+     * @return null, or the reason the fields were cut off by a limit
+     */
+    private String extractResponseFields(ClassOrInterfaceDeclaration classDeclaration, Map<String, Object> fields) {
+        int included = 0;
         for (FieldDeclaration field : classDeclaration.getFields()) {
             // Skip fields with @JsonIgnore or JPA relations
             if (hasAnnotation(field, "JsonIgnore") || hasJpaRelationAnnotation(field)) {
                 continue;
             }
+            String truncated = admitField(included++);
+            if (truncated != null) {
+                return truncated;
+            }
 
             // Get field name from @JsonProperty if present
             String fieldName = field.getAnnotations().stream()
-                .filter(a -> a.getNameAsString().equals("JsonProperty"))
+                .filter(a -> a.getName().getIdentifier().equals("JsonProperty"))
                 .findFirst()
                 .map(this::getJsonPropertyValue)
                 .orElse(field.getVariable(0).getNameAsString());
@@ -824,10 +1656,12 @@ public class TypeResolver {
                 if (isCollectionType(qualifiedName)) {
                     Map<String, Object> collectionType = handleResponseCollectionType(resolvedType);
                     fields.put(fieldName, collectionType);
-                } else if (isJavaType(qualifiedName)) {
+                } else if (isPlainJavaType(qualifiedName)) {
                     fields.put(fieldName, Map.of("type", normalizeType(resolvedType.describe())));
+                } else if (isEnum(qualifiedName)) {
+                    fields.put(fieldName, resolveEnum(qualifiedName));
                 } else {
-                    Map<String, Object> customType = resolveResponseFields(resolvedType);
+                    Map<String, Object> customType = resolveResponseFields(resolvedType.describe());
                     fields.put(fieldName, customType != null ? 
                             customType : 
                             Map.of("type", normalizeType(fieldType.asString())));
@@ -836,6 +1670,7 @@ public class TypeResolver {
                 fields.put(fieldName, Map.of("type", normalizeType(fieldType.asString())));
             }
         }
+        return null;
     }
 
     private Map<String, Object> handleRequestCollectionType(ResolvedType type, boolean isValidated) {
@@ -850,23 +1685,24 @@ public class TypeResolver {
             Map<String, Object> result = new LinkedHashMap<>();
             result.put("type", "array");
 
-            // For complex types, try to resolve their fields
+            if (isEnum(genericTypeName)) {
+                result.put("items", resolveEnum(genericTypeName));
+                return result;
+            }
+
+            // For complex types, reuse the item type's schema
             try {
-                Optional<ClassOrInterfaceDeclaration> dtoClass = findClass(genericTypeName);
-                if (dtoClass.isPresent()) {
-                    // Check for @JsonIgnoreProperties at class level
-                    if (isValidated) {
-                        boolean ignoreUnknown = hasJsonIgnoreProperties(dtoClass.get());
-                        result.put("ignoreUnknown", ignoreUnknown);
-                    } else {
-                        // If not validated, always set ignoreUnknown to false
-                        result.put("ignoreUnknown", false);
-                    }
+                Map<String, Object> itemSchema = resolveRequestFields(genericTypeName, isValidated);
+                if (itemSchema != null && isReference(itemSchema)) {
+                    result.put("items", itemSchema);
+                    return result;
+                }
+                if (itemSchema != null) {
+                    result.put("ignoreUnknown", itemSchema.get("ignoreUnknown"));
+                    copyMarkers(itemSchema, result);
 
-                    // Get the fields without wrapping in another "items" object
-                    Map<String, Object> itemFields = new LinkedHashMap<>();
-                    extractRequestFields(dtoClass.get(), itemFields, isValidated);
-                    
+                    // Use the fields without wrapping in another "items" object
+                    Map<?, ?> itemFields = (Map<?, ?>) itemSchema.get("items");
                     if (!itemFields.isEmpty()) {
                         result.put("items", itemFields);
                         return result;
@@ -897,12 +1733,21 @@ public class TypeResolver {
             Map<String, Object> result = new LinkedHashMap<>();
             result.put("type", "array");
 
-            // For complex types, try to resolve their fields
+            if (isEnum(genericTypeName)) {
+                result.put("items", resolveEnum(genericTypeName));
+                return result;
+            }
+
+            // For complex types, reuse the item type's schema
             try {
-                Optional<ClassOrInterfaceDeclaration> dtoClass = findClass(genericTypeName);
-                if (dtoClass.isPresent()) {
-                    Map<String, Object> itemFields = new LinkedHashMap<>();
-                    extractResponseFields(dtoClass.get(), itemFields);
+                Map<String, Object> itemSchema = resolveResponseFields(genericTypeName);
+                if (itemSchema != null && isReference(itemSchema)) {
+                    result.put("items", itemSchema);
+                    return result;
+                }
+                if (itemSchema != null) {
+                    copyMarkers(itemSchema, result);
+                    Map<?, ?> itemFields = (Map<?, ?>) itemSchema.get("items");
                     if (!itemFields.isEmpty()) {
                         result.put("items", itemFields);
                         return result;
@@ -925,6 +1770,10 @@ public class TypeResolver {
      * Resolve the generic type inside a ResponseEntity
      */
     public Map<String, Object> resolveResponseEntityType(Type type) {
+        return timed(() -> resolveResponseEntity(type));
+    }
+
+    private Map<String, Object> resolveResponseEntity(Type type) {
         try {
             // Check if it's ResponseEntity<Void>
             if (type.asString().contains("ResponseEntity<Void>") || 
@@ -952,7 +1801,7 @@ public class TypeResolver {
                     }
                     
                     // Resolve the generic type
-                    return resolveResponseBody(genericType);
+                    return resolveResponseBodyType(genericType);
                 }
             }
             
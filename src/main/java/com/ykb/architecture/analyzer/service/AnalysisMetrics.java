@@ -0,0 +1,264 @@
+package com.ykb.architecture.analyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ykb.architecture.analyzer.core.model.metrics.CacheMetrics;
+import com.ykb.architecture.analyzer.core.model.metrics.FileMetrics;
+import com.ykb.architecture.analyzer.core.model.metrics.MetricsReport;
+import com.ykb.architecture.analyzer.core.model.metrics.ResolutionMetrics;
+import com.ykb.architecture.analyzer.parser.util.CompilationUnitCache;
+import com.ykb.architecture.analyzer.parser.util.SlowestEntries;
+import com.ykb.architecture.analyzer.parser.util.TypeResolver;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Phase timings and counters of one analysis run. Counters are updated from worker threads;
+ * cache and resolution statistics are read from their owners when a snapshot is taken, relative
+ * to their values when the run started, since a resident service reuses them across runs.
+ */
+@Slf4j
+public class AnalysisMetrics implements AnalysisMetricsMXBean {
+    private static final int SLOWEST_FILES = 20;
+    private static final String METRICS_SUFFIX = ".metrics.json";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final String sourceRoot;
+    private final Path rootPath;
+    private final TypeResolver typeResolver;
+    private final CompilationUnitCache compilationUnitCache;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private volatile String currentPhase = "idle";
+    private volatile long currentPhaseStart;
+
+    private final LongAdder filesTotal = new LongAdder();
+    private final LongAdder filesParsed = new LongAdder();
+    private final LongAdder filesSkipped = new LongAdder();
+    private final LongAdder filesReused = new LongAdder();
+    private final LongAdder filesFailed = new LongAdder();
+    private final AtomicInteger providedEndpoints = new AtomicInteger();
+    private final AtomicInteger consumedClients = new AtomicInteger();
+    private final SlowestEntries slowestFiles = new SlowestEntries(SLOWEST_FILES);
+
+    private final IncrementalCache incrementalCache;
+    private final long baseResolutionCalls;
+    private final long baseResolutionFailures;
+    private final long baseResolutionMillis;
+    private final long baseSchemaHits;
+    private final long baseSchemaMisses;
+    private final long baseCompilationUnitHits;
+    private final long baseCompilationUnitMisses;
+    private ObjectName objectName;
+
+    AnalysisMetrics(String sourceRoot, TypeResolver typeResolver, CompilationUnitCache compilationUnitCache,
+                    IncrementalCache incrementalCache) {
+        this.sourceRoot = sourceRoot;
+        this.rootPath = Path.of(sourceRoot).toAbsolutePath().normalize();
+        this.typeResolver = typeResolver;
+        this.compilationUnitCache = compilationUnitCache;
+        this.incrementalCache = incrementalCache;
+        this.baseResolutionCalls = typeResolver.getResolutionCount();
+        this.baseResolutionFailures = typeResolver.getResolutionFailures();
+        this.baseResolutionMillis = typeResolver.getResolutionMillis();
+        this.baseSchemaHits = typeResolver.getSchemaCacheHits();
+        this.baseSchemaMisses = typeResolver.getSchemaCacheMisses();
+        this.baseCompilationUnitHits = compilationUnitCache.getHits();
+        this.baseCompilationUnitMisses = compilationUnitCache.getMisses();
+    }
+
+    /**
+     * Ends the running phase, if any, and starts the next one.
+     */
+    public synchronized void startPhase(String phase) {
+        endPhase();
+        currentPhase = phase;
+        currentPhaseStart = System.nanoTime();
+    }
+
+    public synchronized void endPhase() {
+        if (currentPhaseStart != 0) {
+            phases.merge(currentPhase, (System.nanoTime() - currentPhaseStart) / 1_000_000, Long::sum);
+            currentPhaseStart = 0;
+            currentPhase = "idle";
+        }
+    }
+
+    public void addFiles(long total, long skipped) {
+        filesTotal.add(total);
+        filesSkipped.add(skipped);
+    }
+
+    /**
+     * Records a file that was parsed and analyzed, with its relative path as name.
+     */
+    public void fileParsed(Path file, long durationNanos, boolean failed) {
+        (failed ? filesFailed : filesParsed).increment();
+        Path absolute = file.toAbsolutePath().normalize();
+        slowestFiles.record((absolute.startsWith(rootPath) ? rootPath.relativize(absolute) : file).toString(),
+            durationNanos);
+    }
+
+    public void fileReused() {
+        filesReused.increment();
+    }
+
+    public void setEndpointCounts(int provided, int consumed) {
+        providedEndpoints.set(provided);
+        consumedClients.set(consumed);
+    }
+
+    public MetricsReport snapshot() {
+        Map<String, CacheMetrics> caches = new LinkedHashMap<>();
+        caches.put("schema", schemaCache());
+        caches.put("compilationUnit", compilationUnitCache());
+        if (incrementalCache != null) {
+            caches.put("incremental",
+                CacheMetrics.of(incrementalCache.getReusedCount(), incrementalCache.getAnalyzedCount()));
+        }
+        Map<String, Long> phaseMillis;
+        synchronized (this) {
+            phaseMillis = new LinkedHashMap<>(phases);
+        }
+        return MetricsReport.builder()
+                .sourceRoot(sourceRoot)
+                .durationMillis(getElapsedMillis())
+                .phases(phaseMillis)
+                .files(FileMetrics.builder()
+                        .total(filesTotal.sum())
+                        .parsed(filesParsed.sum())
+                        .skipped(filesSkipped.sum())
+                        .reused(filesReused.sum())
+                        .failed(filesFailed.sum())
+                        .build())
+                .providedEndpoints(providedEndpoints.get())
+                .consumedClients(consumedClients.get())
+                .resolution(ResolutionMetrics.builder()
+                        .calls(getResolutionCalls())
+                        .failures(getResolutionFailures())
+                        .durationMillis(typeResolver.getResolutionMillis() - baseResolutionMillis)
+                        .build())
+                .caches(caches)
+                .slowestFiles(slowestFiles.getEntries())
+                .slowestTypes(typeResolver.getSlowestTypes())
+                .build();
+    }
+
+    /**
+     * Writes the snapshot next to the report: {@code report.json} or {@code report.smile} gets {@code report.metrics.json}.
+     */
+    public Path write(Path reportPath) throws IOException {
+        String baseName = ReportFormat.baseName(reportPath.getFileName().toString());
+        Path metricsPath = reportPath.resolveSibling(baseName + METRICS_SUFFIX);
+        objectMapper.writeValue(metricsPath.toFile(), snapshot());
+        return metricsPath;
+    }
+
+    /**
+     * Registers this run with the platform MBean server under
+     * {@code com.ykb.architecture.analyzer:type=Analysis,sourceRoot=...}.
+     */
+    void registerMBean() {
+        try {
+            objectName = new ObjectName("com.ykb.architecture.analyzer:type=Analysis,sourceRoot="
+                + ObjectName.quote(sourceRoot));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (JMException e) {
+            log.warn("Could not register analysis metrics with JMX: {}", e.getMessage());
+            objectName = null;
+        }
+    }
+
+    void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            log.debug("Could not unregister analysis metrics: {}", e.getMessage());
+        }
+        objectName = null;
+    }
+
+    @Override
+    public String getSourceRoot() {
+        return sourceRoot;
+    }
+
+    @Override
+    public String getPhase() {
+        return currentPhase;
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    @Override
+    public long getFilesTotal() {
+        return filesTotal.sum();
+    }
+
+    @Override
+    public long getFilesParsed() {
+        return filesParsed.sum();
+    }
+
+    @Override
+    public long getFilesSkipped() {
+        return filesSkipped.sum();
+    }
+
+    @Override
+    public long getFilesReused() {
+        return filesReused.sum();
+    }
+
+    @Override
+    public long getFilesFailed() {
+        return filesFailed.sum();
+    }
+
+    @Override
+    public long getResolutionCalls() {
+        return typeResolver.getResolutionCount() - baseResolutionCalls;
+    }
+
+    @Override
+    public long getResolutionFailures() {
+        return typeResolver.getResolutionFailures() - baseResolutionFailures;
+    }
+
+    @Override
+    public double getSchemaCacheHitRate() {
+        return schemaCache().getHitRate();
+    }
+
+    @Override
+    public double getCompilationUnitCacheHitRate() {
+        return compilationUnitCache().getHitRate();
+    }
+
+    private CacheMetrics schemaCache() {
+        return CacheMetrics.of(typeResolver.getSchemaCacheHits() - baseSchemaHits,
+            typeResolver.getSchemaCacheMisses() - baseSchemaMisses);
+    }
+
+    private CacheMetrics compilationUnitCache() {
+        return CacheMetrics.of(compilationUnitCache.getHits() - baseCompilationUnitHits,
+            compilationUnitCache.getMisses() - baseCompilationUnitMisses);
+    }
+}
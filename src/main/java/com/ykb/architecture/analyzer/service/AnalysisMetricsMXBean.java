@@ -0,0 +1,31 @@
+package com.ykb.architecture.analyzer.service;
+
+/**
+ * Live view of a running analysis, registered with the platform MBean server when
+ * {@code --jmx} is given.
+ */
+public interface AnalysisMetricsMXBean {
+    String getSourceRoot();
+
+    String getPhase();
+
+    long getElapsedMillis();
+
+    long getFilesTotal();
+
+    long getFilesParsed();
+
+    long getFilesSkipped();
+
+    long getFilesReused();
+
+    long getFilesFailed();
+
+    long getResolutionCalls();
+
+    long getResolutionFailures();
+
+    double getSchemaCacheHitRate();
+
+    double getCompilationUnitCacheHitRate();
+}
@@ -0,0 +1,148 @@
+package com.ykb.architecture.analyzer.service;
+
+import com.ykb.architecture.analyzer.parser.util.JarClassIndex;
+import com.ykb.architecture.analyzer.parser.util.SchemaLimits;
+import com.ykb.architecture.analyzer.parser.util.TypeResolutionContext;
+import lombok.Builder;
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Tuning options for a single analysis run.
+ * Defaults mirror the behaviour of the command line without any flags.
+ */
+@Data
+@Builder(toBuilder = true)
+public class AnalyzerOptions {
+
+    /**
+     * Number of worker threads used to parse and analyze source files.
+     * A value of 1 processes files sequentially on the calling thread.
+     */
+    @Builder.Default
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Maximum number of parsed compilation units kept in memory and shared
+     * between the main scan and type resolution.
+     */
+    @Builder.Default
+    private int compilationUnitCacheSize = TypeResolutionContext.DEFAULT_COMPILATION_UNIT_CACHE_SIZE;
+
+    /**
+     * When true, request and response body schemas are written once under the report's
+     * {@code schemas} section and endpoints refer to them with {@code $ref}.
+     */
+    @Builder.Default
+    private boolean sharedSchemas = false;
+
+    /**
+     * Bounds for expanding nested request and response types; unlimited by default.
+     */
+    @Builder.Default
+    private SchemaLimits schemaLimits = SchemaLimits.unlimited();
+
+    /**
+     * When true, files that do not mention a controller or Feign client annotation are
+     * not parsed up front; they are only parsed if type resolution needs them.
+     */
+    @Builder.Default
+    private boolean prefilter = true;
+
+    /**
+     * When true, source files are parsed without the bodies of class and interface methods,
+     * without comments and without tokens; enum bodies are kept. Endpoints and schemas only
+     * need declarations and signatures, so this saves parse time and heap per cached unit.
+     */
+    @Builder.Default
+    private boolean lightweightParse = true;
+
+    /**
+     * Directory holding per-file results between runs. When set, files whose content and
+     * dependencies did not change since the previous run are not analyzed again.
+     */
+    private Path incrementalCacheDirectory;
+
+    /**
+     * When true, provided endpoints are written to the report as their files are analyzed
+     * instead of building the whole report in memory first.
+     */
+    @Builder.Default
+    private boolean streamOutput = false;
+
+    /**
+     * When true, the report is written without indentation.
+     */
+    @Builder.Default
+    private boolean compactOutput = false;
+
+    /**
+     * Encoding of the written report.
+     */
+    @Builder.Default
+    private ReportFormat reportFormat = ReportFormat.JSON;
+
+    /**
+     * When true, the service keeps its caches, per-file results and their dependencies between
+     * calls to {@code analyze}, so a repeated analysis only revisits files affected by a change.
+     */
+    @Builder.Default
+    private boolean resident = false;
+
+    /**
+     * When true, live progress and counters are exposed as an MXBean while the analysis runs.
+     */
+    @Builder.Default
+    private boolean jmx = false;
+
+    /**
+     * Maximum number of file reads in flight when reads are separated from parsing. When
+     * positive, files are read ahead on I/O threads (virtual threads where the runtime has them)
+     * and parsed on the worker threads as their content arrives, which overlaps slow storage such
+     * as network-mounted workspaces with parsing. Zero reads each file on the worker that parses it.
+     */
+    @Builder.Default
+    private int ioConcurrency = 0;
+
+    /**
+     * Dependency jars, or directories searched for jars such as a local Maven repository,
+     * whose classes are resolved when they are not found in the sources.
+     */
+    @Builder.Default
+    private List<Path> classpath = List.of();
+
+    /**
+     * File keeping the class index of the {@link #classpath} jars between runs. When null,
+     * the index is built in memory on every run.
+     */
+    private Path jarIndexFile;
+
+    /**
+     * Class index shared by several analyses, e.g. in batch mode. When null and a
+     * {@link #classpath} is given, each analysis loads the index itself.
+     */
+    private JarClassIndex jarClassIndex;
+
+    /**
+     * Worker pool shared by several analyses, e.g. in batch mode. When null, each
+     * analysis creates a pool with {@link #threads} workers and shuts it down afterwards.
+     */
+    private ExecutorService executor;
+
+    public static AnalyzerOptions defaults() {
+        return AnalyzerOptions.builder().build();
+    }
+
+    /**
+     * Returns options that carry a loaded class index, so analyses created from them share it.
+     */
+    public AnalyzerOptions withJarClassIndex() {
+        if (jarClassIndex != null || classpath.isEmpty()) {
+            return this;
+        }
+        return toBuilder().jarClassIndex(JarClassIndex.load(classpath, jarIndexFile)).build();
+    }
+}
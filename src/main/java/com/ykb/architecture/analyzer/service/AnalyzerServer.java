@@ -0,0 +1,416 @@
+package com.ykb.architecture.analyzer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.ykb.architecture.analyzer.core.model.server.AnalysisRequest;
+import com.ykb.architecture.analyzer.core.model.server.AnalysisResponse;
+import com.ykb.architecture.analyzer.core.model.server.ResidentRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps analyzers resident and serves analysis requests over HTTP on the loopback interface.
+ * Each repository gets a resident {@link AnalyzerService} on its first request; later requests
+ * reuse its parsed units, solver caches, class index and schemas and only revisit files
+ * affected by changes since the previous request. A changed config file starts a fresh analyzer.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li>{@code POST /analyze} with an {@link AnalysisRequest} body</li>
+ *     <li>{@code GET /repositories} lists the resident repositories</li>
+ *     <li>{@code DELETE /repositories?sourceRoot=...} drops a repository and its caches</li>
+ *     <li>{@code POST /shutdown} stops the server</li>
+ * </ul>
+ * Loopback is reachable from any web page the user opens, so every request must name the
+ * server as {@code localhost} or a loopback address in its {@code Host} header, which defeats
+ * DNS rebinding, and carry the token written to the token file on start as
+ * {@code Authorization: Bearer <token>}, which a cross-site request cannot send. Analysis
+ * requests must be {@code application/json}, and reports are only written below the output directory.
+ */
+@Slf4j
+public class AnalyzerServer {
+    public static final int DEFAULT_PORT = 7091;
+    private static final int REQUEST_THREADS = 4;
+    private static final int TOKEN_BYTES = 32;
+    private static final String BEARER = "Bearer ";
+    private static final Set<String> LOOPBACK_HOSTS = Set.of("localhost", "127.0.0.1", "[::1]");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int port;
+    private final AnalyzerOptions options;
+    private final Path outputDirectory;
+    private final Path tokenFile;
+    private Path writtenTokenFile;
+    private byte[] token;
+    private final Map<String, Resident> repositories = new ConcurrentHashMap<>();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private HttpServer server;
+    private ExecutorService requestExecutor;
+    private ExecutorService workers;
+
+    /**
+     * A resident analyzer together with the config file stamp it was created for.
+     */
+    private static final class Resident {
+        private final String sourceRoot;
+        private final String config;
+        private final String configStamp;
+        private final AnalyzerService analyzerService;
+        private int analyses;
+        private Long lastDurationMillis;
+
+        private Resident(String sourceRoot, String config, String configStamp, AnalyzerService analyzerService) {
+            this.sourceRoot = sourceRoot;
+            this.config = config;
+            this.configStamp = configStamp;
+            this.analyzerService = analyzerService;
+        }
+    }
+
+    /**
+     * @param outputDirectory directory that requested report files are written below; when null,
+     *                        requests with an output path are rejected and reports are only returned
+     * @param tokenFile       file the access token is written to on start; when null, a file named
+     *                        after the port under {@code ~/.endpoint-analyzer} is used
+     */
+    public AnalyzerServer(int port, AnalyzerOptions options, Path outputDirectory, Path tokenFile) {
+        this.port = port;
+        // Resident analyzers share one index of the dependency jars
+        this.options = options.withJarClassIndex();
+        this.outputDirectory = outputDirectory == null ? null : outputDirectory.toAbsolutePath().normalize();
+        this.tokenFile = tokenFile;
+    }
+
+    public static Path defaultTokenFile(int port) {
+        return Path.of(System.getProperty("user.home"), ".endpoint-analyzer", "server-" + port + ".token");
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        writeToken(tokenFile != null ? tokenFile : defaultTokenFile(getPort()));
+        if (outputDirectory != null) {
+            Files.createDirectories(outputDirectory);
+        }
+        requestExecutor = Executors.newFixedThreadPool(REQUEST_THREADS, AnalyzerService.workerThreadFactory("server-"));
+        workers = Executors.newFixedThreadPool(Math.max(1, options.getThreads()),
+            AnalyzerService.workerThreadFactory("analyzer-worker-"));
+        server.setExecutor(requestExecutor);
+        server.createContext("/analyze", exchange -> handle(exchange, "POST", this::analyze));
+        server.createContext("/repositories", exchange -> {
+            if ("DELETE".equals(exchange.getRequestMethod())) {
+                handle(exchange, "DELETE", this::evict);
+            } else {
+                handle(exchange, "GET", ignored -> listRepositories());
+            }
+        });
+        server.createContext("/shutdown", exchange -> handle(exchange, "POST", ignored -> {
+            // Stop after the response was sent
+            requestExecutor.execute(this::stop);
+            return Map.of("status", "stopping");
+        }));
+        server.start();
+        log.info("Analyzer server listening on http://{}:{}", server.getAddress().getHostString(),
+            server.getAddress().getPort());
+    }
+
+    /**
+     * Creates a fresh token and writes it to a file only the current user can read.
+     */
+    private void writeToken(Path file) throws IOException {
+        byte[] random = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(random);
+        String encoded = HexFormat.of().formatHex(random);
+        Path absolute = file.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+        Files.deleteIfExists(absolute);
+        if (absolute.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(absolute, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(absolute);
+        }
+        Files.writeString(absolute, encoded);
+        token = encoded.getBytes(StandardCharsets.US_ASCII);
+        writtenTokenFile = absolute;
+        log.info("Server token written to {}", absolute);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        repositories.clear();
+        if (writtenTokenFile != null) {
+            try {
+                Files.deleteIfExists(writtenTokenFile);
+            } catch (IOException e) {
+                log.warn("Could not delete the server token file {}: {}", writtenTokenFile, e.getMessage());
+            }
+        }
+        log.info("Analyzer server stopped");
+        stopped.countDown();
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(HttpExchange exchange) throws Exception;
+    }
+
+    private void handle(HttpExchange exchange, String method, Handler handler) throws IOException {
+        try {
+            if (!isLoopbackHost(exchange.getRequestHeaders().getFirst("Host"))) {
+                respond(exchange, 403, Map.of("error", "Host must be localhost:" + getPort()));
+                return;
+            }
+            if (!hasToken(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                respond(exchange, 401, Map.of("error", "Missing or wrong server token"));
+                return;
+            }
+            if (!method.equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, Map.of("error", "Method not allowed: " + exchange.getRequestMethod()));
+                return;
+            }
+            respond(exchange, 200, handler.handle(exchange));
+        } catch (UnsupportedContentTypeException e) {
+            respond(exchange, 415, Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            respond(exchange, 400, Map.of("error", String.valueOf(e.getMessage())));
+        } catch (Exception e) {
+            log.error("Request {} {} failed: {}", exchange.getRequestMethod(), exchange.getRequestURI(),
+                e.getMessage(), e);
+            respond(exchange, 500, Map.of("error", e.getClass().getSimpleName() + ": " + e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean isLoopbackHost(String host) {
+        if (host == null) {
+            return false;
+        }
+        String expectedPort = ":" + getPort();
+        String normalized = host.trim().toLowerCase(Locale.ROOT);
+        return normalized.endsWith(expectedPort)
+                && LOOPBACK_HOSTS.contains(normalized.substring(0, normalized.length() - expectedPort.length()));
+    }
+
+    private boolean hasToken(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            return false;
+        }
+        byte[] presented = authorization.substring(BEARER.length()).trim().getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(token, presented);
+    }
+
+    private static void requireJson(HttpExchange exchange) {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        String mediaType = contentType == null ? "" : contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        if (!mediaType.equals("application/json")) {
+            throw new UnsupportedContentTypeException(contentType);
+        }
+    }
+
+    private static final class UnsupportedContentTypeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private UnsupportedContentTypeException(String contentType) {
+            super("Content-Type must be application/json, was: " + contentType);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private AnalysisResponse analyze(HttpExchange exchange) throws IOException {
+        requireJson(exchange);
+        AnalysisRequest request;
+        try (InputStream input = exchange.getRequestBody()) {
+            request = objectMapper.readValue(input, AnalysisRequest.class);
+        }
+        if (request.getSourceRoot() == null || request.getConfig() == null) {
+            throw new IllegalArgumentException("sourceRoot and config are required");
+        }
+        String sourceRoot = Path.of(request.getSourceRoot()).toAbsolutePath().normalize().toString();
+        String config = Path.of(request.getConfig()).toAbsolutePath().normalize().toString();
+        if (!Files.isDirectory(Path.of(sourceRoot))) {
+            throw new IllegalArgumentException("Source root is not a directory: " + sourceRoot);
+        }
+
+        Path outputPath = request.getOutput() == null ? null : outputPath(request.getOutput());
+
+        String key = sourceRoot + "\n" + config;
+        String configStamp = stamp(Path.of(config));
+        Resident existing = repositories.get(key);
+        Resident resident = existing;
+        if (existing == null || !existing.configStamp.equals(configStamp)) {
+            if (existing != null) {
+                log.info("Config {} changed, starting a fresh analyzer for {}", config, sourceRoot);
+            }
+            // Created outside the map: setting up the solver must not block other requests on it
+            Resident created = new Resident(sourceRoot, config, configStamp, new AnalyzerService(sourceRoot, config,
+                options.toBuilder().resident(true).executor(workers).build()));
+            resident = repositories.compute(key, (ignored, present) ->
+                present != null && present.configStamp.equals(configStamp) ? present : created);
+            if (existing != null && resident != existing) {
+                existing.analyzerService.releaseSolvers();
+            }
+        }
+        boolean warm = resident == existing;
+
+        // One analysis per repository at a time; different repositories run in parallel
+        synchronized (resident) {
+            long start = System.nanoTime();
+            AnalyzerService analyzerService = resident.analyzerService;
+            AnalysisResponse.AnalysisResponseBuilder response = AnalysisResponse.builder()
+                    .sourceRoot(sourceRoot)
+                    .warm(warm);
+            if (outputPath != null) {
+                try (ReportWriter writer = ReportWriter.open(outputPath, options.getReportFormat(), options.isCompactOutput())) {
+                    analyzerService.analyze(writer);
+                }
+                analyzerService.getMetrics().write(outputPath);
+                response.output(outputPath.toString());
+            } else {
+                response.report(analyzerService.analyze());
+            }
+            resident.analyses++;
+            resident.lastDurationMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("Analyzed {} in {} ms ({})", sourceRoot, resident.lastDurationMillis, warm ? "warm" : "cold");
+            return response.metrics(analyzerService.getMetrics().snapshot()).build();
+        }
+    }
+
+    /**
+     * Resolves a requested report path below the output directory, relative paths against it.
+     * Paths leaving the directory, also through symbolic links, are rejected.
+     */
+    private Path outputPath(String output) throws IOException {
+        if (outputDirectory == null) {
+            throw new IllegalArgumentException("Writing reports is disabled; start the server with --output-dir=DIR");
+        }
+        Path path = outputDirectory.resolve(output).normalize();
+        if (!path.startsWith(outputDirectory) || path.equals(outputDirectory)) {
+            throw new IllegalArgumentException("Output must be a file below " + outputDirectory + ": " + output);
+        }
+        Path current = outputDirectory;
+        for (Path name : outputDirectory.relativize(path)) {
+            current = current.resolve(name);
+            if (Files.isSymbolicLink(current)) {
+                throw new IllegalArgumentException("Output must not pass through a symbolic link: " + output);
+            }
+        }
+        Files.createDirectories(path.getParent());
+        if (!path.getParent().toRealPath().startsWith(outputDirectory.toRealPath())) {
+            throw new IllegalArgumentException("Output must be a file below " + outputDirectory + ": " + output);
+        }
+        return path;
+    }
+
+    private List<ResidentRepository> listRepositories() {
+        return repositories.values().stream()
+                .map(resident -> ResidentRepository.builder()
+                        .sourceRoot(resident.sourceRoot)
+                        .config(resident.config)
+                        .analyses(resident.analyses)
+                        .lastDurationMillis(resident.lastDurationMillis)
+                        .build())
+                .sorted((a, b) -> a.getSourceRoot().compareTo(b.getSourceRoot()))
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Object> evict(HttpExchange exchange) {
+        String sourceRoot = queryParameters(exchange).get("sourceRoot");
+        if (sourceRoot == null) {
+            throw new IllegalArgumentException("sourceRoot query parameter is required");
+        }
+        String normalized = Path.of(sourceRoot).toAbsolutePath().normalize().toString();
+        int removed = 0;
+        for (String key : List.copyOf(repositories.keySet())) {
+            if (key.startsWith(normalized + "\n")) {
+                Resident resident = repositories.remove(key);
+                if (resident != null) {
+                    resident.analyzerService.releaseSolvers();
+                    removed++;
+                }
+            }
+        }
+        log.info("Dropped {} resident analyzers for {}", removed, normalized);
+        return Map.of("removed", removed);
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new TreeMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Size and modification time of the config file; a missing file has a stamp of its own.
+     */
+    private static String stamp(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return "absent";
+        }
+    }
+}
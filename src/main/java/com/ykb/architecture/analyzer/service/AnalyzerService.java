@@ -1,108 +1,760 @@
 package com.ykb.architecture.analyzer.service;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
+import com.ykb.architecture.analyzer.core.model.cache.FileCacheEntry;
 import com.ykb.architecture.analyzer.core.model.endpoint.ConsumedEndpoint;
 import com.ykb.architecture.analyzer.core.model.method.ApiCall;
 import com.ykb.architecture.analyzer.core.model.report.ServiceReport;
+import com.ykb.architecture.analyzer.parser.base.StrategyDispatcher;
 import com.ykb.architecture.analyzer.parser.consumer.FeignClientParser;
 import com.ykb.architecture.analyzer.parser.provider.RestControllerParser;
+import com.ykb.architecture.analyzer.parser.util.ApplicationNames;
+import com.ykb.architecture.analyzer.parser.util.ClassIndex;
+import com.ykb.architecture.analyzer.parser.util.ConfigReader;
+import com.ykb.architecture.analyzer.parser.util.DependencyRecorder;
+import com.ykb.architecture.analyzer.parser.util.JarClassIndex;
+import com.ykb.architecture.analyzer.parser.util.SourcePrefilter;
+import com.ykb.architecture.analyzer.parser.util.TypeResolutionContext;
+import com.ykb.architecture.analyzer.parser.util.TypeResolver;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Slf4j
 public class AnalyzerService {
+    private static final String SCHEMA_REF_PREFIX = "#/schemas/";
+    private static final int IN_FLIGHT_FILES_PER_THREAD = 4;
+
     private final String sourceRoot;
+    private final AnalyzerOptions options;
     private final RestControllerParser restControllerParser;
     private final FeignClientParser feignClientParser;
+    private final StrategyDispatcher strategyDispatcher;
+    private final ConfigReader configReader;
+    private final TypeResolutionContext typeResolutionContext;
+    private final TypeResolver typeResolver;
+    private final SourcePrefilter prefilter;
+    private final IncrementalCache incrementalCache;
+    private final ResidentState<FileResult> residentState;
+    private volatile AnalysisMetrics metrics;
+    private final Map<Path, Set<String>> pendingDependencies = new ConcurrentHashMap<>();
+    /** Cache lookups made while deciding what to read ahead, taken over by the file's analysis. */
+    private final Map<Path, Optional<FileCacheEntry>> lookedUpEntries = new ConcurrentHashMap<>();
+    private final Set<Path> reportedChanges = new HashSet<>();
+    private boolean changesKnown;
 
     public AnalyzerService(String sourceRoot, String configPath) {
+        this(sourceRoot, configPath, AnalyzerOptions.defaults());
+    }
+
+    public AnalyzerService(String sourceRoot, String configPath, AnalyzerOptions options) {
         this.sourceRoot = sourceRoot;
-        this.restControllerParser = new RestControllerParser(sourceRoot);
-        this.feignClientParser = new FeignClientParser(sourceRoot, configPath);
+        this.options = options;
+        // One resolution context per analysis, shared by all parser strategies
+        JarClassIndex jarClassIndex = options.withJarClassIndex().getJarClassIndex();
+        this.typeResolutionContext = new TypeResolutionContext(sourceRoot, options.getCompilationUnitCacheSize(),
+            jarClassIndex, options.isLightweightParse());
+        this.typeResolver = new TypeResolver(typeResolutionContext, options.isSharedSchemas(),
+            options.getSchemaLimits());
+        this.restControllerParser = new RestControllerParser(typeResolver);
+        this.configReader = new ConfigReader(configPath);
+        this.feignClientParser = new FeignClientParser(typeResolver, configReader);
+        this.strategyDispatcher = new StrategyDispatcher()
+                .register(restControllerParser)
+                .register(feignClientParser);
+        this.prefilter = new SourcePrefilter(options.isPrefilter()
+                ? strategyDispatcher.getTriggerAnnotations()
+                : Set.of());
+        this.incrementalCache = options.getIncrementalCacheDirectory() == null ? null
+                : new IncrementalCache(options.getIncrementalCacheDirectory(), Path.of(sourceRoot), Path.of(configPath),
+                    "sharedSchemas=" + options.isSharedSchemas() + ",schemaLimits=" + options.getSchemaLimits()
+                        + ",lightweightParse=" + options.isLightweightParse()
+                        + ",jars=" + (jarClassIndex == null ? "none" : jarClassIndex.getFingerprint()),
+                    typeResolutionContext.getClassIndex());
+        this.residentState = options.isResident() ? new ResidentState<>() : null;
+        this.metrics = newMetrics();
+    }
+
+    private AnalysisMetrics newMetrics() {
+        return new AnalysisMetrics(sourceRoot, typeResolver, typeResolutionContext.getCompilationUnitCache(),
+            incrementalCache);
+    }
+
+    /**
+     * Timings and counters of the latest analysis; the caller may add its own phases, such as writing the report.
+     */
+    public AnalysisMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Tells a resident service which Java files were added, modified or deleted since its
+     * previous analysis, e.g. by a file system watcher. Until the next analysis, reported
+     * changes accumulate; that analysis then checks only these files instead of walking and
+     * comparing the whole source root. Without a report, every file is compared as usual.
+     */
+    public synchronized void sourcesChanged(Set<Path> changedFiles) {
+        if (residentState == null || !residentState.isInitialized()) {
+            return;
+        }
+        reportedChanges.addAll(changedFiles);
+        changesKnown = true;
     }
 
     public ServiceReport analyze() {
-        log.info("Starting analysis");
         List<ApiCall> providedEndpoints = new ArrayList<>();
-        List<ConsumedEndpoint> consumedEndpoints = new ArrayList<>();
+        ServiceReport report = analyze(providedEndpoints::add);
+        report.setProvidedEndpoints(providedEndpoints);
+        return report;
+    }
+
+    /**
+     * Analyzes the sources and streams the report to the writer. Provided endpoints are
+     * written as soon as their file is analyzed, so they are never all held in memory.
+     */
+    public void analyze(ReportWriter writer) throws IOException {
+        writer.beginReport(reportHeader().build());
+        ServiceReport report;
+        try {
+            report = analyze(apiCall -> {
+                try {
+                    writer.writeProvidedEndpoint(apiCall);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        metrics.startPhase("write");
+        writer.endReport(report.getConsumedEndpoints(), report.getSchemas());
+        metrics.endPhase();
+    }
 
+    /**
+     * Runs the analysis, handing provided endpoints to the sink in file order.
+     * Returns the report without provided endpoints.
+     */
+    private synchronized ServiceReport analyze(Consumer<ApiCall> providedEndpointSink) {
+        if (residentState != null && residentState.isInitialized()) {
+            metrics = newMetrics();
+        }
+        if (options.isJmx()) {
+            metrics.registerMBean();
+        }
         try {
-            try (Stream<Path> paths = Files.walk(Path.of(sourceRoot))) {
-                paths.filter(Files::isRegularFile)
-                     .filter(path -> path.toString().endsWith(".java"))
-                     .forEach(path -> processJavaFile(path, providedEndpoints, consumedEndpoints));
+            return analyzeFiles(providedEndpointSink);
+        } finally {
+            lookedUpEntries.clear();
+            // Worker threads may outlive this service, e.g. in a shared pool
+            releaseSolvers();
+            metrics.endPhase();
+            metrics.unregisterMBean();
+        }
+    }
+
+    /**
+     * Drops the symbol solvers and parsers the worker threads used, with the types they cached.
+     * Runs after every analysis; a resident service creates them again on its next analysis,
+     * while its parsed units, schemas and file results are kept.
+     */
+    public void releaseSolvers() {
+        typeResolutionContext.releaseSolvers();
+    }
+
+    private ServiceReport analyzeFiles(Consumer<ApiCall> providedEndpointSink) {
+        log.info("Starting analysis");
+        metrics.startPhase("collect");
+        boolean rerun = residentState != null && residentState.isInitialized();
+        Set<Path> knownChanges = rerun && changesKnown ? new HashSet<>(reportedChanges) : null;
+        reportedChanges.clear();
+        changesKnown = false;
+        List<Path> javaFiles = knownChanges != null ? residentState.knownFiles(knownChanges) : collectJavaFiles();
+        int threads = Math.max(1, Math.min(options.getThreads(), javaFiles.size()));
+
+        metrics.startPhase("scan");
+        List<Path> endpointFiles = rerun ? rescan(javaFiles, knownChanges, threads) : scan(javaFiles, threads);
+        log.info("Pre-filter: parsing {} of {} files, skipped {}",
+            endpointFiles.size(), javaFiles.size(), javaFiles.size() - endpointFiles.size());
+        metrics.addFiles(javaFiles.size(), javaFiles.size() - endpointFiles.size());
+
+        // Results are consumed in file order, so the report does not depend on thread scheduling
+        AtomicInteger providedCount = new AtomicInteger();
+        List<ConsumedEndpoint> consumedEndpoints = new ArrayList<>();
+        Map<String, Object> cachedSchemas = new TreeMap<>();
+        if (incrementalCache != null && !rerun) {
+            // Schemas of the previous run are offered to the cache, so a file analyzed again
+            // resolves only the types whose files or type names changed
+            typeResolver.restoreSchemas(incrementalCache::loadSnapshot, incrementalCache::currentDependencies);
+        }
+        metrics.startPhase("analyze");
+        forEachFileInOrder(endpointFiles, threads, this::needsContent, this::analyzeJavaFile, (path, result) -> {
+            if (result == null) {
+                return;
+            }
+            if (incrementalCache != null) {
+                storeResult(path, result);
+            }
+            if (result.cached && result.schemas != null) {
+                cachedSchemas.putAll(result.schemas);
             }
+            providedCount.addAndGet(result.providedEndpoints.size());
+            result.providedEndpoints.forEach(providedEndpointSink);
+            consumedEndpoints.addAll(result.consumedEndpoints);
+        });
+        if (incrementalCache != null) {
+            // After the first run of a resident service, most results come from memory and
+            // their entries are not looked up, so only the first run prunes
+            if (!rerun) {
+                incrementalCache.prune();
+            }
+            if (incrementalCache.getAnalyzedCount() > 0) {
+                metrics.startPhase("snapshot");
+                incrementalCache.storeSnapshot(typeResolver.snapshotSchemas(incrementalCache::fingerprints));
+            }
+            log.info("Incremental cache: reused {} files, analyzed {}",
+                incrementalCache.getReusedCount(), incrementalCache.getAnalyzedCount());
+        }
+
+        metrics.startPhase("report");
+        ServiceReport report = buildServiceReport(consumedEndpoints, sharedSchemas(cachedSchemas));
+        metrics.endPhase();
+        metrics.setEndpointCounts(providedCount.get(), report.getConsumedEndpoints().size());
+        if (residentState != null) {
+            residentState.markInitialized();
+        }
+        log.info("Analysis completed. Found {} provided endpoints and {} consumed clients",
+            providedCount.get(), report.getConsumedEndpoints().size());
+        log.info("Type resolution: {} calls in {} ms across {} source roots",
+            typeResolver.getResolutionCount(), typeResolver.getResolutionMillis(),
+            typeResolutionContext.getSourceRoots().size());
+        log.info("Schema cache: {} hits, {} misses, {} restored from snapshot",
+            typeResolver.getSchemaCacheHits(), typeResolver.getSchemaCacheMisses(), typeResolver.getRestoredSchemas());
+        typeResolutionContext.getCompilationUnitCache().logStatistics();
+        return report;
+    }
+
+    /**
+     * Indexes every declared type once, so DTO lookups during parsing are map accesses.
+     * The same read decides whether a file can contain an endpoint at all.
+     *
+     * @return the files that need a full parse
+     */
+    private List<Path> scan(List<Path> javaFiles, int threads) {
+        ClassIndex classIndex = typeResolutionContext.getClassIndex();
+        List<Boolean> candidates = new ArrayList<>(javaFiles.size());
+        forEachFileInOrder(javaFiles, threads, path -> true, (path, content) -> scanJavaFile(path, content, classIndex),
+            (path, candidate) -> candidates.add(candidate));
+        classIndex.markBuilt();
+
+        List<Path> endpointFiles = new ArrayList<>();
+        for (int i = 0; i < javaFiles.size(); i++) {
+            if (!Boolean.FALSE.equals(candidates.get(i))) {
+                endpointFiles.add(javaFiles.get(i));
+            }
+        }
+        return endpointFiles;
+    }
+
+    /**
+     * Repeated analysis of a resident service: only added, modified and removed files are
+     * scanned again. Everything derived from them is invalidated: their parsed units, the
+     * solvers' type caches, their index entries, and the schemas and file results whose
+     * recorded dependencies include the changed files or the type names they declare(d).
+     *
+     * @param knownChanges files reported as changed, or null to compare every file
+     * @return the files that need a full parse; results of unaffected files are reused
+     */
+    private List<Path> rescan(List<Path> javaFiles, Set<Path> knownChanges, int threads) {
+        Set<Path> changedFiles = residentState.changedFiles(javaFiles, knownChanges);
+        if (incrementalCache != null) {
+            incrementalCache.startRun(changedFiles);
+        }
+        typeResolver.clearReferencedSchemas();
+
+        if (!changedFiles.isEmpty()) {
+            ClassIndex classIndex = typeResolutionContext.getClassIndex();
+            Set<String> changedTypeNames = new HashSet<>();
+            changedFiles.forEach(file -> {
+                classIndex.getDeclaredTypes(file).forEach(name -> changedTypeNames.add(simpleName(name)));
+                classIndex.unregister(file);
+            });
+            List<Path> presentFiles = new ArrayList<>(changedFiles);
+            presentFiles.retainAll(new HashSet<>(javaFiles));
+            runForEachFile(presentFiles, threads, path -> scanJavaFile(path, null, classIndex));
+            presentFiles.forEach(file ->
+                classIndex.getDeclaredTypes(file).forEach(name -> changedTypeNames.add(simpleName(name))));
+            classIndex.markBuilt();
+            typeResolutionContext.invalidate(changedFiles);
+
+            Set<String> changedFileKeys = new HashSet<>();
+            changedFiles.forEach(file ->
+                changedFileKeys.add(DependencyRecorder.FILE_PREFIX + file.toAbsolutePath().normalize()));
+            Predicate<Set<String>> affected = dependencies -> dependencies.stream().anyMatch(key ->
+                changedFileKeys.contains(key)
+                    || key.startsWith(DependencyRecorder.TYPE_PREFIX)
+                        && changedTypeNames.contains(simpleName(key.substring(DependencyRecorder.TYPE_PREFIX.length()))));
+            int schemas = typeResolver.invalidateSchemas(affected);
+            int results = residentState.invalidateResults(affected);
+            log.info("Detected {} changed files; invalidated {} schemas and {} file results",
+                changedFiles.size(), schemas, results);
+        } else {
+            log.info("No source changes since the previous analysis");
+        }
+
+        List<Path> endpointFiles = new ArrayList<>();
+        for (Path file : javaFiles) {
+            if (residentState.isEndpointCandidate(file)) {
+                endpointFiles.add(file);
+            }
+        }
+        return endpointFiles;
+    }
+
+    private static String simpleName(String name) {
+        int genericStart = name.indexOf('<');
+        String raw = genericStart < 0 ? name : name.substring(0, genericStart);
+        return raw.substring(raw.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Lists all Java files under the source root in a stable, sorted order.
+     */
+    private List<Path> collectJavaFiles() {
+        try (Stream<Path> paths = Files.walk(Path.of(sourceRoot))) {
+            return paths.filter(Files::isRegularFile)
+                        .filter(path -> path.toString().endsWith(".java"))
+                        .sorted()
+                        .collect(Collectors.toList());
         } catch (IOException e) {
             log.error("Failed to scan source directory: {}, error: {}", sourceRoot, e.getMessage());
+            return List.of();
         }
+    }
 
-        ServiceReport report = buildServiceReport(providedEndpoints, consumedEndpoints);
-        log.info("Analysis completed. Found {} provided endpoints and {} consumed clients", 
-            report.getProvidedEndpoints().size(), report.getConsumedEndpoints().size());
-        return report;
+    /**
+     * Applies the task to every file, in parallel when more than one thread is configured,
+     * and returns the results in file order.
+     */
+    private <T> List<T> runForEachFile(List<Path> javaFiles, int threads, Function<Path, T> task) {
+        List<T> results = new ArrayList<>(javaFiles.size());
+        forEachFileInOrder(javaFiles, threads, path -> false, (path, content) -> task.apply(path),
+            (path, result) -> results.add(result));
+        return results;
     }
 
-    private void processJavaFile(Path path, List<ApiCall> providedEndpoints, List<ConsumedEndpoint> consumedEndpoints) {
+    /**
+     * Applies the task to every file and hands each result to the consumer in file order,
+     * on the calling thread. Only a bounded window of files is in flight at a time, so
+     * results that finish early wait in a small reorder buffer instead of piling up.
+     * A file whose task failed is passed to the consumer with a null result.
+     * <p>
+     * With a positive {@link AnalyzerOptions#getIoConcurrency() I/O concurrency}, files the
+     * predicate selects are read ahead on I/O threads and the task gets their content;
+     * otherwise, or if the read failed, the task gets null and reads the file itself.
+     */
+    private <T> void forEachFileInOrder(List<Path> javaFiles, int threads, Predicate<Path> readAhead,
+                                        BiFunction<Path, byte[], T> task, BiConsumer<Path, T> consumer) {
+        if (options.getIoConcurrency() > 0) {
+            forEachFileReadAhead(javaFiles, threads, readAhead, task, consumer);
+            return;
+        }
+        if (threads <= 1) {
+            javaFiles.forEach(path -> consumer.accept(path, task.apply(path, null)));
+            return;
+        }
+
+        log.debug("Processing {} files with {} worker threads", javaFiles.size(), threads);
+        boolean sharedExecutor = options.getExecutor() != null;
+        ExecutorService executor = sharedExecutor
+                ? options.getExecutor()
+                : Executors.newFixedThreadPool(threads, workerThreadFactory("analyzer-worker-"));
         try {
-            CompilationUnit cu = StaticJavaParser.parse(new File(path.toString()));
+            int window = threads * IN_FLIGHT_FILES_PER_THREAD;
+            Deque<Future<T>> inFlight = new ArrayDeque<>(window);
+            int submitted = 0;
+            for (int i = 0; i < javaFiles.size(); i++) {
+                while (submitted < javaFiles.size() && submitted - i < window) {
+                    Path path = javaFiles.get(submitted++);
+                    inFlight.add(executor.submit(() -> task.apply(path, null)));
+                }
 
-            // Parse REST controllers
-            List<ApiCall> newProvidedEndpoints = restControllerParser.parse(cu);
+                T result;
+                try {
+                    result = inFlight.poll().get();
+                } catch (ExecutionException e) {
+                    log.error("Failed to process file: {}, error: {}", javaFiles.get(i), e.getCause().getMessage());
+                    result = null;
+                }
+                consumer.accept(javaFiles.get(i), result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Analysis was interrupted", e);
+        } finally {
+            if (!sharedExecutor) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * The pipelined form of {@link #forEachFileInOrder}: reads run on I/O threads, at most
+     * {@code ioConcurrency} at a time, and each file's task runs on the worker pool once its
+     * content is there. The in-flight window covers the reads, so the workers never wait for
+     * storage as long as it keeps up with parsing.
+     */
+    private <T> void forEachFileReadAhead(List<Path> javaFiles, int threads, Predicate<Path> readAhead,
+                                          BiFunction<Path, byte[], T> task, BiConsumer<Path, T> consumer) {
+        int ioConcurrency = options.getIoConcurrency();
+        log.debug("Processing {} files with {} worker threads and up to {} concurrent reads on {} threads",
+            javaFiles.size(), threads, ioConcurrency, IoExecutors.isVirtualThreadsAvailable() ? "virtual" : "platform");
+        boolean sharedExecutor = options.getExecutor() != null;
+        ExecutorService executor = sharedExecutor
+                ? options.getExecutor()
+                : Executors.newFixedThreadPool(threads, workerThreadFactory("analyzer-worker-"));
+        ExecutorService ioExecutor = IoExecutors.newIoExecutor();
+        Semaphore reads = new Semaphore(ioConcurrency);
+        try {
+            int window = threads * IN_FLIGHT_FILES_PER_THREAD + ioConcurrency;
+            Deque<Future<T>> inFlight = new ArrayDeque<>(window);
+            int submitted = 0;
+            for (int i = 0; i < javaFiles.size(); i++) {
+                while (submitted < javaFiles.size() && submitted - i < window) {
+                    Path path = javaFiles.get(submitted++);
+                    inFlight.add(CompletableFuture
+                            .supplyAsync(() -> readAhead.test(path) ? read(path, reads) : null, ioExecutor)
+                            .thenApplyAsync(content -> task.apply(path, content), executor));
+                }
+
+                T result;
+                try {
+                    result = inFlight.poll().get();
+                } catch (ExecutionException e) {
+                    log.error("Failed to process file: {}, error: {}", javaFiles.get(i), e.getCause().getMessage());
+                    result = null;
+                }
+                consumer.accept(javaFiles.get(i), result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Analysis was interrupted", e);
+        } finally {
+            ioExecutor.shutdownNow();
+            if (!sharedExecutor) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Reads a file once a read permit is free. A failed read returns null, so the task
+     * reads the file itself and reports the error as usual.
+     */
+    private static byte[] read(Path path, Semaphore reads) {
+        try {
+            reads.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            return Files.readAllBytes(path);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            reads.release();
+        }
+    }
+
+    /**
+     * Whether a file's content is needed to analyze it: not for files whose result is kept
+     * or cached, nor for files that type resolution already parsed. The incremental cache is
+     * looked up here, on the I/O thread, and the analysis of the file takes over the result,
+     * so only files that have to be analyzed again are read ahead.
+     */
+    private boolean needsContent(Path path) {
+        if (residentState != null && residentState.getResult(path).isPresent()) {
+            return false;
+        }
+        if (incrementalCache != null) {
+            Optional<FileCacheEntry> cached = incrementalCache.load(path);
+            lookedUpEntries.put(path, cached);
+            if (cached.isPresent()) {
+                return false;
+            }
+        }
+        return !typeResolutionContext.getCompilationUnitCache().isCached(path);
+    }
+
+    static ThreadFactory workerThreadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Registers the file's types in the class index and tells whether it needs a full parse.
+     * Files that are skipped are still parsed on demand when the type resolver needs them.
+     */
+    private boolean scanJavaFile(Path path, byte[] content, ClassIndex classIndex) {
+        try {
+            byte[] source = content != null ? content : Files.readAllBytes(path);
+            if (incrementalCache != null) {
+                incrementalCache.recordContent(path, source);
+            }
+            classIndex.register(path, new String(source, StandardCharsets.UTF_8));
+            boolean endpointCandidate = prefilter.mayContainAnnotation(source);
+            if (residentState != null) {
+                residentState.recordScan(path, source, endpointCandidate);
+            }
+            return endpointCandidate;
+        } catch (IOException e) {
+            log.warn("Could not read file {}: {}", path, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Returns the kept result of a file when a resident service saw no change affecting it,
+     * or the cached result when incremental analysis is enabled and nothing it depends on
+     * changed; otherwise analyzes it, recording its dependencies for the caches.
+     */
+    private FileResult analyzeJavaFile(Path path, byte[] content) {
+        if (incrementalCache == null && residentState == null) {
+            return processJavaFile(path, content);
+        }
+
+        if (residentState != null) {
+            Optional<FileResult> kept = residentState.getResult(path);
+            if (kept.isPresent()) {
+                metrics.fileReused();
+                return kept.get();
+            }
+        }
+
+        Optional<FileCacheEntry> cached = incrementalCache != null ? loadCached(path) : Optional.empty();
+        if (cached.isPresent()) {
+            log.debug("Reusing cached result for {}", getSimpleFileName(path));
+            metrics.fileReused();
+            FileResult result = FileResult.cached(cached.get());
+            if (residentState != null) {
+                residentState.storeResult(path, result, incrementalCache.dependencyKeys(cached.get()));
+            }
+            return result;
+        }
+
+        DependencyRecorder.begin();
+        FileResult result;
+        Set<String> dependencies;
+        try {
+            result = processJavaFile(path, content);
+        } finally {
+            dependencies = DependencyRecorder.end();
+            dependencies.add(DependencyRecorder.FILE_PREFIX + path.toAbsolutePath().normalize());
+        }
+        if (incrementalCache != null) {
+            pendingDependencies.put(path, dependencies);
+        }
+        if (residentState != null) {
+            residentState.storeResult(path, result.kept(options.isSharedSchemas() ? referencedSchemas(result) : null),
+                dependencies);
+        }
+        return result;
+    }
+
+    /**
+     * The incremental cache entry of a file, looked up only once per analysis: loading counts the entry as reused.
+     */
+    private Optional<FileCacheEntry> loadCached(Path path) {
+        Optional<FileCacheEntry> lookedUp = lookedUpEntries.remove(path);
+        return lookedUp != null ? lookedUp : incrementalCache.load(path);
+    }
+
+    /**
+     * Writes a fresh result to the incremental cache.
+     */
+    private void storeResult(Path path, FileResult result) {
+        Set<String> dependencies = pendingDependencies.remove(path);
+        if (result == FileResult.FAILED || result.cached || dependencies == null) {
+            return;
+        }
+        FileCacheEntry entry = FileCacheEntry.builder()
+                .providedEndpoints(result.providedEndpoints)
+                .consumedEndpoints(result.consumedEndpoints)
+                .schemas(options.isSharedSchemas() ? referencedSchemas(result) : null)
+                .build();
+        incrementalCache.store(path, entry, dependencies);
+    }
+
+    private FileResult processJavaFile(Path path, byte[] content) {
+        long start = System.nanoTime();
+        try {
+            CompilationUnit cu = content != null
+                    ? typeResolutionContext.getCompilationUnit(path, content)
+                    : typeResolutionContext.getCompilationUnit(path);
+
+            // One pass over the unit feeds every strategy
+            StrategyDispatcher.Result parsed = strategyDispatcher.dispatch(cu);
+
+            List<ApiCall> newProvidedEndpoints = parsed.get(restControllerParser);
             if (!newProvidedEndpoints.isEmpty()) {
                 log.info("Found REST controller in {} with {} endpoints", getSimpleFileName(path), newProvidedEndpoints.size());
-                providedEndpoints.addAll(newProvidedEndpoints);
             }
 
-            // Parse Feign clients
-            List<ConsumedEndpoint> newConsumedEndpoints = feignClientParser.parse(cu);
+            List<ConsumedEndpoint> newConsumedEndpoints = parsed.get(feignClientParser);
             if (!newConsumedEndpoints.isEmpty()) {
-                newConsumedEndpoints.forEach(endpoint -> 
-                    log.info("Found Feign client '{}' in {} with {} endpoints", 
+                newConsumedEndpoints.forEach(endpoint ->
+                    log.info("Found Feign client '{}' in {} with {} endpoints",
                         endpoint.getClientApplicationName(), getSimpleFileName(path), endpoint.getApiCalls().size()));
-                consumedEndpoints.addAll(newConsumedEndpoints);
             }
 
+            metrics.fileParsed(path, System.nanoTime() - start, false);
+            return new FileResult(newProvidedEndpoints, newConsumedEndpoints);
         } catch (Exception e) {
             log.error("Failed to parse file: {}, error: {}", path, e.getMessage());
+            metrics.fileParsed(path, System.nanoTime() - start, true);
+            return FileResult.FAILED;
+        }
+    }
+
+    /**
+     * Shared schemas of this run, plus those stored with reused cache entries.
+     */
+    private Map<String, Object> sharedSchemas(Map<String, Object> cachedSchemas) {
+        Map<String, Object> resolved = typeResolver.getSharedSchemas();
+        if (resolved == null) {
+            return null;
+        }
+        Map<String, Object> schemas = new TreeMap<>(cachedSchemas);
+        schemas.putAll(resolved);
+        return schemas;
+    }
+
+    private Map<String, Object> referencedSchemas(FileResult result) {
+        Map<String, Object> referenced = new TreeMap<>();
+        List<ApiCall> apiCalls = new ArrayList<>(result.providedEndpoints);
+        result.consumedEndpoints.forEach(endpoint -> apiCalls.addAll(endpoint.getApiCalls()));
+        for (ApiCall apiCall : apiCalls) {
+            for (Object body : Arrays.asList(apiCall.getRequestBody(), apiCall.getResponseBody())) {
+                if (body instanceof Map && ((Map<?, ?>) body).get("$ref") instanceof String) {
+                    String key = ((String) ((Map<?, ?>) body).get("$ref")).substring(SCHEMA_REF_PREFIX.length());
+                    referenced.put(key, typeResolver.getSharedSchema(key));
+                }
+            }
         }
+        return referenced;
     }
 
-    private ServiceReport buildServiceReport(List<ApiCall> providedEndpoints, List<ConsumedEndpoint> consumedEndpoints) {
-        // Group consumed endpoints by client name and merge their API calls
-        Map<String, ConsumedEndpoint> mergedEndpoints = new HashMap<>();
-        
+    /**
+     * Report builder with the analyzed service's name taken from spring.application.name.
+     */
+    private ServiceReport.ServiceReportBuilder reportHeader() {
+        Optional<String> applicationName = configReader.getApplicationName();
+        return ServiceReport.builder()
+                .organizationName(applicationName.map(ApplicationNames::organizationName).orElse(null))
+                .productName(applicationName.map(ApplicationNames::productName).orElse(null))
+                .applicationName(applicationName.map(ApplicationNames::applicationName).orElse(null));
+    }
+
+    private ServiceReport buildServiceReport(List<ConsumedEndpoint> consumedEndpoints, Map<String, Object> schemas) {
+        // Group consumed endpoints by client name and merge their API calls.
+        // Insertion order keeps the grouping stable between runs.
+        Map<String, ConsumedEndpoint> mergedEndpoints = new LinkedHashMap<>();
+
         for (ConsumedEndpoint endpoint : consumedEndpoints) {
             String clientKey = endpoint.getClientApplicationName();
-            
+
             if (mergedEndpoints.containsKey(clientKey)) {
                 // Add API calls to existing endpoint
-                ConsumedEndpoint existing = mergedEndpoints.get(clientKey);
-                List<ApiCall> mergedCalls = new ArrayList<>(existing.getApiCalls());
-                mergedCalls.addAll(endpoint.getApiCalls());
-                existing.setApiCalls(mergedCalls);
+                mergedEndpoints.get(clientKey).getApiCalls().addAll(endpoint.getApiCalls());
             } else {
-                // Create new endpoint
-                mergedEndpoints.put(clientKey, endpoint);
+                // Create new endpoint. It is a copy, since per-file results may be reused by a later analysis.
+                mergedEndpoints.put(clientKey, ConsumedEndpoint.builder()
+                        .clientOrganizationName(endpoint.getClientOrganizationName())
+                        .clientProductName(endpoint.getClientProductName())
+                        .clientApplicationName(endpoint.getClientApplicationName())
+                        .apiCalls(new ArrayList<>(endpoint.getApiCalls()))
+                        .build());
             }
         }
 
-        return ServiceReport.builder()
-                .providedEndpoints(providedEndpoints)
+        return reportHeader()
                 .consumedEndpoints(new ArrayList<>(mergedEndpoints.values()))
+                .schemas(schemas)
                 .build();
     }
 
     private String getSimpleFileName(Path path) {
         return path.getFileName().toString();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Endpoints found in a single source file.
+     */
+    private static class FileResult {
+        static final FileResult FAILED = new FileResult(List.of(), List.of());
+
+        final List<ApiCall> providedEndpoints;
+        final List<ConsumedEndpoint> consumedEndpoints;
+        final boolean cached;
+        final Map<String, Object> schemas;
+
+        FileResult(List<ApiCall> providedEndpoints, List<ConsumedEndpoint> consumedEndpoints) {
+            this(providedEndpoints, consumedEndpoints, false, null);
+        }
+
+        private FileResult(List<ApiCall> providedEndpoints, List<ConsumedEndpoint> consumedEndpoints,
+                           boolean cached, Map<String, Object> schemas) {
+            this.providedEndpoints = providedEndpoints;
+            this.consumedEndpoints = consumedEndpoints;
+            this.cached = cached;
+            this.schemas = schemas;
+        }
+
+        static FileResult cached(FileCacheEntry entry) {
+            return new FileResult(entry.getProvidedEndpoints(), entry.getConsumedEndpoints(), true, entry.getSchemas());
+        }
+
+        /**
+         * This result as it is reused by later analyses, with the shared schemas it refers to.
+         */
+        FileResult kept(Map<String, Object> referencedSchemas) {
+            return new FileResult(providedEndpoints, consumedEndpoints, true, referencedSchemas);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.ykb.architecture.analyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ykb.architecture.analyzer.core.model.batch.BatchEntry;
+import com.ykb.architecture.analyzer.core.model.batch.BatchManifest;
+import com.ykb.architecture.analyzer.core.model.batch.BatchSummary;
+import com.ykb.architecture.analyzer.core.model.batch.RepositoryResult;
+import lombok.extern.slf4j.Slf4j;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Analyzes the repositories listed in a manifest within one JVM.
+ * A bounded number of repositories run at the same time, and all of them share one
+ * worker pool for file processing, so the pool size caps the total parsing threads.
+ * Each repository gets its own report; a summary with timings and failures is written at the end.
+ */
+@Slf4j
+public class BatchAnalyzer {
+    private static final int DEFAULT_PARALLELISM = 2;
+    private static final String DEFAULT_SUMMARY = "batch_summary.json";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Path manifestPath;
+    private final AnalyzerOptions options;
+
+    public BatchAnalyzer(Path manifestPath, AnalyzerOptions options) {
+        this.manifestPath = manifestPath;
+        this.options = options;
+    }
+
+    /**
+     * Runs every manifest entry and writes the summary. Failures of single repositories
+     * are recorded in the summary and do not stop the batch.
+     */
+    public BatchSummary run() throws IOException {
+        BatchManifest manifest = readManifest(manifestPath);
+        List<BatchEntry> entries = manifest.getRepositories() != null ? manifest.getRepositories() : List.of();
+        int parallelism = Math.max(1, Math.min(
+            manifest.getParallelism() != null ? manifest.getParallelism() : DEFAULT_PARALLELISM, entries.size()));
+        log.info("Batch analysis of {} repositories, {} at a time with {} shared worker threads",
+            entries.size(), parallelism, options.getThreads());
+
+        long start = System.nanoTime();
+        // Dependency jars are indexed once for all repositories
+        AnalyzerOptions sharedOptions = options.withJarClassIndex();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, options.getThreads()),
+            AnalyzerService.workerThreadFactory("analyzer-worker-"));
+        ExecutorService repositories = Executors.newFixedThreadPool(parallelism,
+            AnalyzerService.workerThreadFactory("batch-"));
+        List<RepositoryResult> results = new ArrayList<>(entries.size());
+        try {
+            List<Future<RepositoryResult>> futures = new ArrayList<>(entries.size());
+            for (BatchEntry entry : entries) {
+                futures.add(repositories.submit(() -> analyzeRepository(entry, sharedOptions, workers)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(failure(entries.get(i), 0, e.getCause()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch analysis was interrupted", e);
+        } finally {
+            repositories.shutdownNow();
+            workers.shutdownNow();
+            if (sharedOptions.getJarClassIndex() != null) {
+                sharedOptions.getJarClassIndex().close();
+            }
+        }
+
+        int succeeded = (int) results.stream().filter(RepositoryResult::isSuccess).count();
+        BatchSummary summary = BatchSummary.builder()
+                .repositoryCount(results.size())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .repositories(results)
+                .build();
+
+        Path summaryPath = manifest.getSummary() != null ? resolve(manifest.getSummary()) : Path.of(DEFAULT_SUMMARY);
+        objectMapper.writeValue(summaryPath.toFile(), summary);
+        log.info("Batch complete: {} succeeded, {} failed in {} ms. Summary written to: {}",
+            summary.getSucceeded(), summary.getFailed(), summary.getDurationMillis(), summaryPath.toAbsolutePath());
+
+        if (manifest.getGraph() != null) {
+            List<Path> reports = results.stream()
+                    .filter(RepositoryResult::isSuccess)
+                    .map(result -> Path.of(result.getOutput()))
+                    .collect(Collectors.toList());
+            Path graphPath = resolve(manifest.getGraph());
+            DependencyGraphBuilder.write(DependencyGraphBuilder.fromReports(reports), graphPath);
+            log.info("Dependency graph written to: {}", graphPath.toAbsolutePath());
+        }
+        return summary;
+    }
+
+    private RepositoryResult analyzeRepository(BatchEntry entry, AnalyzerOptions options, ExecutorService workers) {
+        long start = System.nanoTime();
+        try {
+            String sourceRoot = resolve(entry.getSourceRoot()).toString();
+            String configPath = resolve(entry.getConfig()).toString();
+            Path outputPath = resolve(entry.getOutput());
+            if (!Files.isDirectory(Path.of(sourceRoot))) {
+                throw new IllegalArgumentException("Source root is not a directory: " + sourceRoot);
+            }
+            log.info("Analyzing source root: {} with config: {}", sourceRoot, configPath);
+
+            AnalyzerOptions repositoryOptions = options.toBuilder()
+                    .executor(workers)
+                    .incrementalCacheDirectory(options.getIncrementalCacheDirectory() == null ? null
+                        : options.getIncrementalCacheDirectory().resolve(cacheName(outputPath)))
+                    .build();
+            AnalyzerService analyzerService = new AnalyzerService(sourceRoot, configPath, repositoryOptions);
+            if (outputPath.getParent() != null) {
+                Files.createDirectories(outputPath.getParent());
+            }
+            try (ReportWriter writer = ReportWriter.open(outputPath, options.getReportFormat(), options.isCompactOutput())) {
+                analyzerService.analyze(writer);
+                analyzerService.getMetrics().write(outputPath);
+                return RepositoryResult.builder()
+                        .sourceRoot(entry.getSourceRoot())
+                        .output(outputPath.toString())
+                        .success(true)
+                        .durationMillis((System.nanoTime() - start) / 1_000_000)
+                        .providedEndpoints(writer.getProvidedEndpointCount())
+                        .consumedClients(writer.getConsumedClientCount())
+                        .build();
+            }
+        } catch (Exception e) {
+            log.error("Analysis of {} failed: {}", entry.getSourceRoot(), e.getMessage(), e);
+            return failure(entry, (System.nanoTime() - start) / 1_000_000, e);
+        }
+    }
+
+    private static RepositoryResult failure(BatchEntry entry, long durationMillis, Throwable error) {
+        return RepositoryResult.builder()
+                .sourceRoot(entry.getSourceRoot())
+                .output(entry.getOutput())
+                .success(false)
+                .durationMillis(durationMillis)
+                .error(error.getClass().getSimpleName() + ": " + error.getMessage())
+                .build();
+    }
+
+    /**
+     * Each repository keeps its incremental cache in its own subdirectory, named after its report.
+     */
+    private static String cacheName(Path outputPath) {
+        return outputPath.toAbsolutePath().normalize().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private Path resolve(String path) {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("Manifest entry is missing sourceRoot, config or output");
+        }
+        Path baseDirectory = manifestPath.toAbsolutePath().getParent();
+        return baseDirectory.resolve(path).normalize();
+    }
+
+    static BatchManifest readManifest(Path manifestPath) throws IOException {
+        String fileName = manifestPath.getFileName().toString();
+        if (fileName.endsWith(".yml") || fileName.endsWith(".yaml")) {
+            try (InputStream input = Files.newInputStream(manifestPath)) {
+                Object document = new Yaml().load(input);
+                return objectMapper.convertValue(document, BatchManifest.class);
+            }
+        }
+        return objectMapper.readValue(manifestPath.toFile(), BatchManifest.class);
+    }
+}
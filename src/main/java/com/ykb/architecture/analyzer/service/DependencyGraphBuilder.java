@@ -0,0 +1,180 @@
+package com.ykb.architecture.analyzer.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ykb.architecture.analyzer.core.model.endpoint.ConsumedEndpoint;
+import com.ykb.architecture.analyzer.core.model.graph.DependencyEdge;
+import com.ykb.architecture.analyzer.core.model.graph.DependencyGraph;
+import com.ykb.architecture.analyzer.core.model.graph.UnmatchedCall;
+import com.ykb.architecture.analyzer.core.model.method.ApiCall;
+import com.ykb.architecture.analyzer.core.model.report.ServiceReport;
+import com.ykb.architecture.analyzer.parser.util.PathTemplateIndex;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Joins the consumed endpoints of many service reports to the provided endpoints of
+ * their target services. Provided endpoints are indexed per service in a
+ * {@link PathTemplateIndex}, so each consumed call is matched with one trie lookup.
+ */
+@Slf4j
+public class DependencyGraphBuilder {
+    /** Request/response schemas are not needed for matching, so they are skipped while reading. */
+    @JsonIgnoreProperties(value = {"requestBody", "responseBody", "pathVariables", "queryParameters"},
+        ignoreUnknown = true)
+    private abstract static class ApiCallMixin {
+    }
+
+    @JsonIgnoreProperties(value = {"schemas"}, ignoreUnknown = true)
+    private abstract static class ServiceReportMixin {
+    }
+
+    private static final ServiceReportReader reportReader = new ServiceReportReader()
+            .addMixIn(ApiCall.class, ApiCallMixin.class)
+            .addMixIn(ServiceReport.class, ServiceReportMixin.class);
+
+    private static final ObjectMapper graphWriter = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<String, PathTemplateIndex<String>> endpointsByService = new HashMap<>();
+    private final Map<String, List<ConsumedEndpoint>> consumedByService = new LinkedHashMap<>();
+
+    /**
+     * Adds a report. The service is named by the report's application name, or by the fallback if it has none.
+     */
+    public DependencyGraphBuilder add(ServiceReport report, String fallbackName) {
+        String service = report.getApplicationName() != null ? report.getApplicationName() : fallbackName;
+        PathTemplateIndex<String> endpoints =
+            endpointsByService.computeIfAbsent(service, key -> new PathTemplateIndex<>());
+        if (report.getProvidedEndpoints() != null) {
+            for (ApiCall apiCall : report.getProvidedEndpoints()) {
+                endpoints.add(apiCall.getHttpMethod(), apiCall.getFullPath(), apiCall.getFullPath());
+            }
+        }
+        if (report.getConsumedEndpoints() != null) {
+            consumedByService.computeIfAbsent(service, key -> new ArrayList<>()).addAll(report.getConsumedEndpoints());
+        }
+        return this;
+    }
+
+    public DependencyGraph build() {
+        List<DependencyEdge> edges = new ArrayList<>();
+        List<UnmatchedCall> unmatchedCalls = new ArrayList<>();
+
+        consumedByService.forEach((consumer, consumedEndpoints) -> {
+            for (ConsumedEndpoint consumedEndpoint : consumedEndpoints) {
+                String target = consumedEndpoint.getClientApplicationName();
+                PathTemplateIndex<String> targetEndpoints = endpointsByService.get(target);
+                for (ApiCall apiCall : consumedEndpoint.getApiCalls()) {
+                    String providerPath = targetEndpoints == null ? null
+                        : targetEndpoints.match(apiCall.getHttpMethod(), apiCall.getFullPath()).orElse(null);
+                    if (providerPath != null) {
+                        edges.add(DependencyEdge.builder()
+                                .consumer(consumer)
+                                .provider(target)
+                                .httpMethod(apiCall.getHttpMethod())
+                                .consumerPath(apiCall.getFullPath())
+                                .providerPath(providerPath)
+                                .build());
+                    } else {
+                        unmatchedCalls.add(UnmatchedCall.builder()
+                                .consumer(consumer)
+                                .targetApplication(target)
+                                .httpMethod(apiCall.getHttpMethod())
+                                .path(apiCall.getFullPath())
+                                .reason(targetEndpoints == null
+                                    ? UnmatchedCall.Reason.UNKNOWN_SERVICE
+                                    : UnmatchedCall.Reason.NO_MATCHING_ENDPOINT)
+                                .build());
+                    }
+                }
+            }
+        });
+
+        log.info("Dependency graph: {} services, {} edges, {} unmatched calls",
+            endpointsByService.size(), edges.size(), unmatchedCalls.size());
+        return DependencyGraph.builder()
+                .services(new ArrayList<>(new TreeSet<>(endpointsByService.keySet())))
+                .edges(edges)
+                .unmatchedCalls(unmatchedCalls)
+                .build();
+    }
+
+    /**
+     * Builds the graph from report files, or from all JSON and Smile files in the given directories.
+     * Files that are not service reports are skipped.
+     */
+    public static DependencyGraph fromReports(List<Path> paths) throws IOException {
+        List<Path> reportFiles = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.list(path)) {
+                    files.filter(file -> ReportFormat.isReportFileName(file.getFileName().toString()))
+                         .forEach(reportFiles::add);
+                }
+            } else {
+                reportFiles.add(path);
+            }
+        }
+        reportFiles.sort(null);
+
+        long start = System.nanoTime();
+        List<ServiceReport> reports;
+        try {
+            reports = reportFiles.parallelStream()
+                    .map(DependencyGraphBuilder::readReport)
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        DependencyGraphBuilder builder = new DependencyGraphBuilder();
+        for (int i = 0; i < reportFiles.size(); i++) {
+            if (reports.get(i) != null) {
+                builder.add(reports.get(i), fallbackName(reportFiles.get(i)));
+            }
+        }
+        log.info("Read {} service reports in {} ms",
+            reports.stream().filter(Objects::nonNull).count(), (System.nanoTime() - start) / 1_000_000);
+        return builder.build();
+    }
+
+    public static void write(DependencyGraph graph, Path outputPath) throws IOException {
+        graphWriter.writeValue(outputPath.toFile(), graph);
+    }
+
+    private static ServiceReport readReport(Path file) {
+        try {
+            ServiceReport report = reportReader.read(file);
+            if (report.getProvidedEndpoints() == null && report.getConsumedEndpoints() == null) {
+                log.debug("Skipping {}, it is not a service report", file);
+                return null;
+            }
+            return report;
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping {}, it is not a service report: {}", file, e.getOriginalMessage());
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read report " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String fallbackName(Path reportFile) {
+        return ReportFormat.baseName(reportFile.getFileName().toString());
+    }
+}
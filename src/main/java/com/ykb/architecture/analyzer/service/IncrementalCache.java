@@ -0,0 +1,317 @@
+package com.ykb.architecture.analyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.ykb.architecture.analyzer.core.model.cache.FileCacheEntry;
+import com.ykb.architecture.analyzer.core.model.cache.SchemaSnapshot;
+import com.ykb.architecture.analyzer.parser.util.ClassIndex;
+import com.ykb.architecture.analyzer.parser.util.DependencyRecorder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of per-file analysis results for incremental runs.
+ * An entry is keyed by the file's path and content hash together with the config file
+ * and the options that shape the output. It is reused only while every file and type
+ * name recorded as its dependency still has the same fingerprint, so a reused result
+ * is the same as a fresh analysis would produce. Resolved schemas are kept the same way
+ * in a snapshot, so files that are analyzed again reuse the schemas of unchanged types.
+ */
+@Slf4j
+public class IncrementalCache {
+    /** Bump when the analysis output or the entry format changes. */
+    private static final String FORMAT_VERSION = "1";
+    private static final String ENTRY_SUFFIX = ".json";
+    private static final String ABSENT = "absent";
+    private static final String SNAPSHOT_FILE = "schemas.smile";
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper snapshotMapper = new ObjectMapper(SmileFactory.builder()
+            .disable(SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT)
+            .build());
+
+    private final Path cacheDirectory;
+    private final Path sourceRoot;
+    private final String runKey;
+    private final ClassIndex classIndex;
+
+    private final Map<Path, String> contentHashes = new ConcurrentHashMap<>();
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final Set<String> usedEntries = ConcurrentHashMap.newKeySet();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder analyzed = new LongAdder();
+
+    public IncrementalCache(Path cacheDirectory, Path sourceRoot, Path configPath, String optionsFingerprint,
+                            ClassIndex classIndex) {
+        this.cacheDirectory = cacheDirectory;
+        this.sourceRoot = sourceRoot.toAbsolutePath().normalize();
+        this.classIndex = classIndex;
+        this.runKey = FORMAT_VERSION + "\n" + fileFingerprint(configPath) + "\n" + optionsFingerprint;
+    }
+
+    /**
+     * Prepares a repeated run of a resident analysis: fingerprints are computed again and
+     * the content hashes of changed files are dropped until they are recorded anew.
+     */
+    public void startRun(Collection<Path> changedFiles) {
+        changedFiles.forEach(file -> contentHashes.remove(normalize(file)));
+        fingerprints.clear();
+        usedEntries.clear();
+        reused.reset();
+        analyzed.reset();
+    }
+
+    /**
+     * Remembers the content hash of a file read during the scan, so fingerprints do not read it again.
+     */
+    public void recordContent(Path file, byte[] content) {
+        contentHashes.put(normalize(file), sha256(content));
+    }
+
+    /**
+     * Returns the stored result of a file if none of its dependencies changed.
+     */
+    public Optional<FileCacheEntry> load(Path file) {
+        String entryKey = entryKey(file);
+        Path entryPath = cacheDirectory.resolve(entryKey + ENTRY_SUFFIX);
+        if (!Files.isRegularFile(entryPath)) {
+            return Optional.empty();
+        }
+        try {
+            FileCacheEntry entry = objectMapper.readValue(entryPath.toFile(), FileCacheEntry.class);
+            if (currentDependencies(entry.getDependencies()).isEmpty()) {
+                log.debug("Cached result of {} is stale", file);
+                return Optional.empty();
+            }
+            usedEntries.add(entryKey);
+            reused.increment();
+            return Optional.of(entry);
+        } catch (IOException e) {
+            log.warn("Could not read cache entry {}: {}", entryPath, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a fresh result of a file together with the fingerprints of its dependencies.
+     */
+    public void store(Path file, FileCacheEntry entry, Set<String> dependencies) {
+        String entryKey = entryKey(file);
+        entry.setFile(relativize(normalize(file)));
+        entry.setDependencies(fingerprints(dependencies));
+
+        try {
+            Files.createDirectories(cacheDirectory);
+            Path target = cacheDirectory.resolve(entryKey + ENTRY_SUFFIX);
+            Path temporary = Files.createTempFile(cacheDirectory, entryKey, ".tmp");
+            objectMapper.writeValue(temporary.toFile(), entry);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            usedEntries.add(entryKey);
+            analyzed.increment();
+        } catch (IOException e) {
+            log.warn("Could not write cache entry for {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Current fingerprints of recorded dependencies, keyed the way they are stored.
+     */
+    public Map<String, String> fingerprints(Set<String> dependencies) {
+        Map<String, String> fingerprinted = new TreeMap<>();
+        for (String dependency : dependencies) {
+            fingerprinted.put(relativeKey(dependency), fingerprint(dependency));
+        }
+        return fingerprinted;
+    }
+
+    /**
+     * Stored dependencies as absolute keys, or empty if any of them no longer has the stored fingerprint.
+     */
+    public Optional<Set<String>> currentDependencies(Map<String, String> storedDependencies) {
+        Set<String> dependencies = new HashSet<>();
+        for (Map.Entry<String, String> dependency : storedDependencies.entrySet()) {
+            String key = absoluteKey(dependency.getKey());
+            if (!fingerprint(key).equals(dependency.getValue())) {
+                log.debug("{} changed", dependency.getKey());
+                return Optional.empty();
+            }
+            dependencies.add(key);
+        }
+        return Optional.of(dependencies);
+    }
+
+    /**
+     * Reads the schemas stored by an earlier run with the same config and options.
+     */
+    public Optional<SchemaSnapshot> loadSnapshot() {
+        Path snapshotPath = cacheDirectory.resolve(SNAPSHOT_FILE);
+        if (!Files.isRegularFile(snapshotPath)) {
+            return Optional.empty();
+        }
+        try {
+            SchemaSnapshot snapshot = snapshotMapper.readValue(snapshotPath.toFile(), SchemaSnapshot.class);
+            if (snapshot.getFormatVersion() != SNAPSHOT_FORMAT_VERSION || !snapshotRunKey().equals(snapshot.getRunKey())) {
+                log.info("Schema snapshot {} was written with other options, ignoring it", snapshotPath);
+                return Optional.empty();
+            }
+            return Optional.of(snapshot);
+        } catch (IOException e) {
+            log.warn("Could not read schema snapshot {}: {}", snapshotPath, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces the stored schemas with the given ones.
+     */
+    public void storeSnapshot(SchemaSnapshot snapshot) {
+        snapshot.setFormatVersion(SNAPSHOT_FORMAT_VERSION);
+        snapshot.setRunKey(snapshotRunKey());
+        try {
+            Files.createDirectories(cacheDirectory);
+            Path temporary = Files.createTempFile(cacheDirectory, "schemas", ".tmp");
+            snapshotMapper.writeValue(temporary.toFile(), snapshot);
+            Files.move(temporary, cacheDirectory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write schema snapshot to {}: {}", cacheDirectory, e.getMessage());
+        }
+    }
+
+    private String snapshotRunKey() {
+        return sha256(runKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Deletes entries that were neither reused nor written by this run.
+     */
+    public void prune() {
+        if (!Files.isDirectory(cacheDirectory)) {
+            return;
+        }
+        try (Stream<Path> entries = Files.list(cacheDirectory)) {
+            for (Path entry : entries.collect(Collectors.toList())) {
+                String name = entry.getFileName().toString();
+                if (name.endsWith(ENTRY_SUFFIX)
+                        && !usedEntries.contains(name.substring(0, name.length() - ENTRY_SUFFIX.length()))) {
+                    Files.deleteIfExists(entry);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not prune cache directory {}: {}", cacheDirectory, e.getMessage());
+        }
+    }
+
+    /**
+     * Dependencies of a stored entry as absolute keys, in the form {@link DependencyRecorder} records them.
+     */
+    public Set<String> dependencyKeys(FileCacheEntry entry) {
+        return entry.getDependencies().keySet().stream()
+                .map(this::absoluteKey)
+                .collect(Collectors.toSet());
+    }
+
+    public long getReusedCount() {
+        return reused.sum();
+    }
+
+    public long getAnalyzedCount() {
+        return analyzed.sum();
+    }
+
+    private String entryKey(Path file) {
+        Path normalized = normalize(file);
+        return sha256((runKey + "\n" + relativize(normalized) + "\n" + fileFingerprint(normalized))
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Current fingerprint of a recorded dependency: the content hash for a file, and for a type
+     * name the indexed declarations sharing its simple name together with their content hashes.
+     */
+    private String fingerprint(String dependency) {
+        return fingerprints.computeIfAbsent(dependency, key -> {
+            if (key.startsWith(DependencyRecorder.FILE_PREFIX)) {
+                return fileFingerprint(Path.of(key.substring(DependencyRecorder.FILE_PREFIX.length())));
+            }
+            String name = key.substring(DependencyRecorder.TYPE_PREFIX.length());
+            StringBuilder declarations = new StringBuilder();
+            for (String candidate : classIndex.getCandidates(name)) {
+                declarations.append(candidate).append('=')
+                        .append(classIndex.findFile(candidate).map(this::fileFingerprint).orElse(ABSENT))
+                        .append('\n');
+            }
+            return sha256(declarations.toString().getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    private String fileFingerprint(Path file) {
+        Path normalized = normalize(file);
+        String known = contentHashes.get(normalized);
+        if (known != null) {
+            return known;
+        }
+        try {
+            return sha256(Files.readAllBytes(normalized));
+        } catch (IOException e) {
+            return ABSENT;
+        }
+    }
+
+    /**
+     * File dependencies are stored relative to the source root, so a cache survives a checkout in another directory.
+     */
+    private String relativeKey(String dependency) {
+        if (!dependency.startsWith(DependencyRecorder.FILE_PREFIX)) {
+            return dependency;
+        }
+        return DependencyRecorder.FILE_PREFIX
+                + relativize(Path.of(dependency.substring(DependencyRecorder.FILE_PREFIX.length())));
+    }
+
+    private String absoluteKey(String storedDependency) {
+        if (!storedDependency.startsWith(DependencyRecorder.FILE_PREFIX)) {
+            return storedDependency;
+        }
+        return DependencyRecorder.FILE_PREFIX
+                + sourceRoot.resolve(storedDependency.substring(DependencyRecorder.FILE_PREFIX.length())).normalize();
+    }
+
+    private String relativize(Path file) {
+        return file.startsWith(sourceRoot)
+                ? sourceRoot.relativize(file).toString().replace('\\', '/')
+                : file.toString();
+    }
+
+    private static Path normalize(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
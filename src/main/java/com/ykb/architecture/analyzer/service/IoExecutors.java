@@ -0,0 +1,43 @@
+package com.ykb.architecture.analyzer.service;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors for blocking file reads. On Java 21 and later every read gets its own virtual
+ * thread; the lookup is reflective, so the analyzer still builds and runs on Java 17, where
+ * reads fall back to a cached pool of platform threads. Callers bound the number of
+ * concurrent reads themselves.
+ */
+@Slf4j
+@UtilityClass
+class IoExecutors {
+    private static final Method VIRTUAL_THREAD_EXECUTOR = virtualThreadExecutorFactory();
+
+    static boolean isVirtualThreadsAvailable() {
+        return VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    static ExecutorService newIoExecutor() {
+        if (VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.debug("Could not create a virtual thread executor: {}", e.getMessage());
+            }
+        }
+        return Executors.newCachedThreadPool(AnalyzerService.workerThreadFactory("analyzer-io-"));
+    }
+
+    private static Method virtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ykb.architecture.analyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import java.util.Locale;
+
+/**
+ * Encodings a {@link com.ykb.architecture.analyzer.core.model.report.ServiceReport} can be written in.
+ * Both carry the same content; {@link ServiceReportReader} reads either of them.
+ */
+public enum ReportFormat {
+    /**
+     * Plain JSON, pretty-printed unless compact output is requested.
+     */
+    JSON(".json"),
+
+    /**
+     * Jackson's binary Smile encoding. Field names and short string values seen before are written
+     * as back references, so repeated type names, paths and schema keys are stored only once.
+     */
+    SMILE(".smile");
+
+    /** Every Smile document starts with these bytes, followed by a version and flags byte. */
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private final String extension;
+
+    ReportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * A new mapper writing and reading this format.
+     */
+    ObjectMapper newObjectMapper() {
+        if (this == JSON) {
+            return new ObjectMapper();
+        }
+        return new ObjectMapper(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build());
+    }
+
+    /**
+     * Parses a command line value such as {@code json} or {@code smile}.
+     */
+    public static ReportFormat fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown report format: " + name + " (expected json or smile)");
+        }
+    }
+
+    /**
+     * Recognizes the format from the first bytes of a report.
+     */
+    public static ReportFormat detect(byte[] header, int length) {
+        if (length < SMILE_HEADER.length) {
+            return JSON;
+        }
+        for (int i = 0; i < SMILE_HEADER.length; i++) {
+            if (header[i] != SMILE_HEADER[i]) {
+                return JSON;
+            }
+        }
+        return SMILE;
+    }
+
+    /**
+     * The file name without the extension of any report format.
+     */
+    public static String baseName(String fileName) {
+        for (ReportFormat format : values()) {
+            if (fileName.endsWith(format.extension)) {
+                return fileName.substring(0, fileName.length() - format.extension.length());
+            }
+        }
+        return fileName;
+    }
+
+    /**
+     * True if the file name has the extension of a report format.
+     */
+    public static boolean isReportFileName(String fileName) {
+        return !baseName(fileName).equals(fileName);
+    }
+}
@@ -0,0 +1,132 @@
+package com.ykb.architecture.analyzer.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ykb.architecture.analyzer.core.model.endpoint.ConsumedEndpoint;
+import com.ykb.architecture.analyzer.core.model.method.ApiCall;
+import com.ykb.architecture.analyzer.core.model.report.ServiceReport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link ServiceReport} as JSON or Smile with a streaming generator.
+ * Endpoints can be written one at a time while the analysis is still running;
+ * the output is the same as serializing the complete report in one go.
+ */
+public class ReportWriter implements Closeable {
+    private static final Map<ReportFormat, ObjectMapper> objectMappers = new EnumMap<>(ReportFormat.class);
+
+    static {
+        for (ReportFormat format : ReportFormat.values()) {
+            objectMappers.put(format, format.newObjectMapper()
+                    .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final JsonGenerator generator;
+    private int providedEndpointCount;
+    private int consumedClientCount;
+
+    /**
+     * @param compact when true, no indentation or line breaks are written
+     */
+    public ReportWriter(OutputStream outputStream, boolean compact) throws IOException {
+        this(outputStream, ReportFormat.JSON, compact);
+    }
+
+    /**
+     * @param compact when true, no indentation or line breaks are written; binary formats are always compact
+     */
+    public ReportWriter(OutputStream outputStream, ReportFormat format, boolean compact) throws IOException {
+        this.objectMapper = objectMappers.get(format);
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        if (!compact && format == ReportFormat.JSON) {
+            generator.useDefaultPrettyPrinter();
+        }
+    }
+
+    public static ReportWriter open(Path outputPath, boolean compact) throws IOException {
+        return open(outputPath, ReportFormat.JSON, compact);
+    }
+
+    public static ReportWriter open(Path outputPath, ReportFormat format, boolean compact) throws IOException {
+        return new ReportWriter(Files.newOutputStream(outputPath), format, compact);
+    }
+
+    /**
+     * Writes a complete report.
+     */
+    public static void write(ServiceReport report, Path outputPath, boolean compact) throws IOException {
+        write(report, outputPath, ReportFormat.JSON, compact);
+    }
+
+    /**
+     * Writes a complete report in the given format.
+     */
+    public static void write(ServiceReport report, Path outputPath, ReportFormat format, boolean compact)
+            throws IOException {
+        try (ReportWriter writer = open(outputPath, format, compact)) {
+            writer.beginReport(report);
+            for (ApiCall apiCall : report.getProvidedEndpoints()) {
+                writer.writeProvidedEndpoint(apiCall);
+            }
+            writer.endReport(report.getConsumedEndpoints(), report.getSchemas());
+        }
+    }
+
+    /**
+     * Starts the report, writing the service name fields of the given header.
+     */
+    public void beginReport(ServiceReport header) throws IOException {
+        generator.writeStartObject();
+        writeOptionalField("organizationName", header.getOrganizationName());
+        writeOptionalField("productName", header.getProductName());
+        writeOptionalField("applicationName", header.getApplicationName());
+        generator.writeArrayFieldStart("providedEndpoints");
+    }
+
+    public void writeProvidedEndpoint(ApiCall apiCall) throws IOException {
+        objectMapper.writeValue(generator, apiCall);
+        providedEndpointCount++;
+    }
+
+    public void endReport(List<ConsumedEndpoint> consumedEndpoints, Map<String, Object> schemas) throws IOException {
+        generator.writeEndArray();
+        generator.writeFieldName("consumedEndpoints");
+        objectMapper.writeValue(generator, consumedEndpoints);
+        consumedClientCount = consumedEndpoints.size();
+        if (schemas != null) {
+            generator.writeFieldName("schemas");
+            objectMapper.writeValue(generator, schemas);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeOptionalField(String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    public int getProvidedEndpointCount() {
+        return providedEndpointCount;
+    }
+
+    public int getConsumedClientCount() {
+        return consumedClientCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,171 @@
+package com.ykb.architecture.analyzer.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * What a resident {@link AnalyzerService} keeps between analyses: the size, modification time
+ * and content hash of every scanned file, the pre-filter decision per file, and per-file results
+ * with the dependencies they were computed from. A repeated analysis asks which files changed,
+ * drops the results that depend on them and reuses the rest.
+ *
+ * @param <R> per-file result
+ */
+@Slf4j
+class ResidentState<R> {
+    private final Map<Path, FileStamp> stamps = new ConcurrentHashMap<>();
+    private final Map<Path, Boolean> endpointCandidates = new ConcurrentHashMap<>();
+    private final Map<Path, StoredResult<R>> results = new ConcurrentHashMap<>();
+    private volatile boolean initialized;
+
+    private static final class FileStamp {
+        private final long size;
+        private final long lastModified;
+        private final String contentHash;
+
+        private FileStamp(long size, long lastModified, String contentHash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+        }
+    }
+
+    private static final class StoredResult<R> {
+        private final R result;
+        private final Set<String> dependencies;
+
+        private StoredResult(R result, Set<String> dependencies) {
+            this.result = result;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * True once a full scan was recorded; later analyses only need to look at changed files.
+     */
+    boolean isInitialized() {
+        return initialized;
+    }
+
+    void markInitialized() {
+        initialized = true;
+    }
+
+    /**
+     * Remembers a scanned file's content and whether it needs a full parse.
+     */
+    void recordScan(Path file, byte[] content, boolean endpointCandidate) {
+        stamps.put(file, stamp(file, IncrementalCache.sha256(content)));
+        endpointCandidates.put(file, endpointCandidate);
+    }
+
+    boolean isEndpointCandidate(Path file) {
+        return !Boolean.FALSE.equals(endpointCandidates.get(file));
+    }
+
+    /**
+     * The files of the last scan, updated with the given paths: those that still exist are
+     * added, the others removed. Saves walking the source root when the changes are known.
+     */
+    List<Path> knownFiles(Set<Path> changedPaths) {
+        Set<Path> files = new TreeSet<>(stamps.keySet());
+        for (Path path : changedPaths) {
+            if (Files.isRegularFile(path)) {
+                files.add(path);
+            } else {
+                files.remove(path);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Compares the current files with the last scan. A file counts as changed if it was added,
+     * removed, or its content differs; files whose size and modification time are unchanged
+     * are not read. Removed files are forgotten.
+     *
+     * @param candidates when not null, only these files are checked for modifications
+     */
+    Set<Path> changedFiles(List<Path> files, Set<Path> candidates) {
+        Set<Path> changed = new TreeSet<>();
+        Set<Path> present = new HashSet<>(files);
+        for (Path file : candidates != null ? candidates : files) {
+            if (!present.contains(file)) {
+                continue;
+            }
+            FileStamp known = stamps.get(file);
+            if (known == null) {
+                changed.add(file);
+                continue;
+            }
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.size() == known.size && attributes.lastModifiedTime().toMillis() == known.lastModified) {
+                    continue;
+                }
+                String contentHash = IncrementalCache.sha256(Files.readAllBytes(file));
+                if (contentHash.equals(known.contentHash)) {
+                    // Touched but not modified
+                    stamps.put(file, stamp(file, contentHash));
+                } else {
+                    changed.add(file);
+                }
+            } catch (IOException e) {
+                log.debug("Could not check {}: {}", file, e.getMessage());
+                changed.add(file);
+            }
+        }
+        for (Path file : Set.copyOf(stamps.keySet())) {
+            if (!present.contains(file)) {
+                changed.add(file);
+                stamps.remove(file);
+                endpointCandidates.remove(file);
+                results.remove(file);
+            }
+        }
+        return changed;
+    }
+
+    Optional<R> getResult(Path file) {
+        StoredResult<R> stored = results.get(file);
+        return stored != null ? Optional.of(stored.result) : Optional.empty();
+    }
+
+    void storeResult(Path file, R result, Set<String> dependencies) {
+        results.put(file, new StoredResult<>(result, dependencies));
+    }
+
+    /**
+     * Drops the results whose dependencies are affected by a change.
+     *
+     * @return the number of dropped results
+     */
+    int invalidateResults(Predicate<Set<String>> affected) {
+        int before = results.size();
+        results.values().removeIf(stored -> affected.test(stored.dependencies));
+        return before - results.size();
+    }
+
+    private static FileStamp stamp(Path file, String contentHash) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileStamp(attributes.size(), attributes.lastModifiedTime().toMillis(), contentHash);
+        } catch (IOException e) {
+            // An unknown stamp makes the next analysis compare the content again
+            return new FileStamp(-1, -1, contentHash);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ykb.architecture.analyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ykb.architecture.analyzer.core.model.report.ServiceReport;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Reads {@link ServiceReport}s written by {@link ReportWriter}. The format is recognized from
+ * the first bytes of the input, so JSON and Smile reports can be mixed regardless of file names.
+ * A reader is thread-safe once configured.
+ */
+public class ServiceReportReader {
+    private final Map<ReportFormat, ObjectMapper> objectMappers = new EnumMap<>(ReportFormat.class);
+
+    public ServiceReportReader() {
+        for (ReportFormat format : ReportFormat.values()) {
+            objectMappers.put(format, format.newObjectMapper());
+        }
+    }
+
+    /**
+     * Applies a Jackson mix-in in every format, e.g. to skip parts of the report that are not needed.
+     * Must be called before the first report is read.
+     */
+    public ServiceReportReader addMixIn(Class<?> target, Class<?> mixIn) {
+        objectMappers.values().forEach(objectMapper -> objectMapper.addMixIn(target, mixIn));
+        return this;
+    }
+
+    public ServiceReport read(Path reportPath) throws IOException {
+        try (InputStream input = Files.newInputStream(reportPath)) {
+            return read(input);
+        }
+    }
+
+    public ServiceReport read(InputStream input) throws IOException {
+        InputStream buffered = input.markSupported() ? input : new BufferedInputStream(input);
+        byte[] header = new byte[4];
+        buffered.mark(header.length);
+        int length = buffered.readNBytes(header, 0, header.length);
+        buffered.reset();
+        return objectMappers.get(ReportFormat.detect(header, length)).readValue(buffered, ServiceReport.class);
+    }
+}
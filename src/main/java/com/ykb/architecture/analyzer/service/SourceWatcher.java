@@ -0,0 +1,150 @@
+package com.ykb.architecture.analyzer.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches a source tree with a {@link WatchService} and hands out changes in debounced batches:
+ * a batch is complete once no event arrived for the debounce interval, so saving many files at
+ * once (a refactoring, a branch switch) leads to one analysis instead of many.
+ * Directories created later are watched as well.
+ */
+@Slf4j
+public class SourceWatcher implements Closeable {
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Set<Path> watchedFiles = new HashSet<>();
+
+    /**
+     * Java files changed within one batch. Events the watcher could not attribute to single
+     * Java files, such as lost events or a deleted directory, mark the batch as incomplete.
+     */
+    public static final class Changes {
+        private final Set<Path> javaFiles;
+        private final boolean complete;
+        private final boolean watchedFileChanged;
+
+        private Changes(Set<Path> javaFiles, boolean complete, boolean watchedFileChanged) {
+            this.javaFiles = javaFiles;
+            this.complete = complete;
+            this.watchedFileChanged = watchedFileChanged;
+        }
+
+        public Set<Path> getJavaFiles() {
+            return javaFiles;
+        }
+
+        /**
+         * False if files may have changed that are not listed, so the whole tree must be compared.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * True if one of the files registered with {@link #watchFile(Path)} changed.
+         */
+        public boolean isWatchedFileChanged() {
+            return watchedFileChanged;
+        }
+    }
+
+    public SourceWatcher(Path sourceRoot) throws IOException {
+        this.watchService = sourceRoot.getFileSystem().newWatchService();
+        registerTree(sourceRoot);
+    }
+
+    /**
+     * Also reports changes to a single file, which may lie outside the source root (e.g. the config).
+     */
+    public void watchFile(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath().normalize();
+        watchedFiles.add(absolute);
+        register(absolute.getParent());
+    }
+
+    /**
+     * Blocks until files changed and no further event arrived for the debounce interval.
+     */
+    public Changes awaitChanges(long debounceMillis) throws InterruptedException {
+        Set<Path> javaFiles = new TreeSet<>();
+        boolean[] complete = {true};
+        boolean[] watchedFileChanged = {false};
+        WatchKey key = watchService.take();
+        while (key != null) {
+            collect(key, javaFiles, complete, watchedFileChanged);
+            key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+        }
+        return new Changes(javaFiles, complete[0], watchedFileChanged[0]);
+    }
+
+    private void collect(WatchKey key, Set<Path> javaFiles, boolean[] complete, boolean[] watchedFileChanged) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) {
+                complete[0] = false;
+                continue;
+            }
+            Path changed = directory.resolve((Path) event.context());
+            if (watchedFiles.contains(changed.toAbsolutePath().normalize())) {
+                watchedFileChanged[0] = true;
+            }
+            if (changed.toString().endsWith(".java")) {
+                javaFiles.add(changed);
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)) {
+                // Files may have been created before the new directory was watched
+                registerTree(changed);
+                complete[0] = false;
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE && directories.containsValue(changed)) {
+                // The files of a deleted directory are not reported one by one
+                complete[0] = false;
+            }
+        }
+        if (!key.reset()) {
+            // The directory is gone
+            directories.remove(key);
+            complete[0] = false;
+        }
+    }
+
+    private void registerTree(Path root) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.filter(Files::isDirectory).forEach(directory -> {
+                try {
+                    register(directory);
+                } catch (IOException e) {
+                    log.warn("Could not watch directory {}: {}", directory, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not watch {}: {}", root, e.getMessage());
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        // A directory registered twice keeps its first path, so reported files match the source walk
+        directories.putIfAbsent(key, directory);
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
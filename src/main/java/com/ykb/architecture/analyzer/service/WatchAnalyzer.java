@@ -0,0 +1,99 @@
+package com.ykb.architecture.analyzer.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the report of one repository up to date while its sources are edited. After a full
+ * first analysis, each debounced batch of file changes goes to a resident {@link AnalyzerService},
+ * which parses only the changed files again, drops the schemas and results depending on them,
+ * and the report is rewritten. A changed config file starts over with a fresh analyzer.
+ */
+@Slf4j
+public class WatchAnalyzer {
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+    private final String sourceRoot;
+    private final String configPath;
+    private final Path outputPath;
+    private final AnalyzerOptions options;
+    private final long debounceMillis;
+
+    public WatchAnalyzer(String sourceRoot, String configPath, Path outputPath, AnalyzerOptions options,
+                         long debounceMillis) {
+        this.sourceRoot = sourceRoot;
+        this.configPath = configPath;
+        this.outputPath = outputPath;
+        // Dependency jars are not watched; their index is kept when the config changes
+        this.options = options.withJarClassIndex();
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Analyzes, then watches and re-analyzes until the thread is interrupted.
+     */
+    public void run() throws IOException, InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, options.getThreads()),
+            AnalyzerService.workerThreadFactory("analyzer-worker-"));
+        try (SourceWatcher watcher = new SourceWatcher(Path.of(sourceRoot))) {
+            // Watch before the first analysis, so edits made meanwhile are not missed
+            watcher.watchFile(Path.of(configPath));
+            AnalyzerService analyzerService = newAnalyzer(workers);
+            writeReport(analyzerService);
+            log.info("Watching {} for changes", sourceRoot);
+
+            while (!Thread.currentThread().isInterrupted()) {
+                SourceWatcher.Changes changes = watcher.awaitChanges(debounceMillis);
+                if (changes.isWatchedFileChanged()) {
+                    log.info("Config {} changed, analyzing from scratch", configPath);
+                    analyzerService.releaseSolvers();
+                    analyzerService = newAnalyzer(workers);
+                } else if (changes.isComplete()) {
+                    if (changes.getJavaFiles().isEmpty()) {
+                        continue;
+                    }
+                    analyzerService.sourcesChanged(changes.getJavaFiles());
+                }
+                // An incomplete batch is left to the service, which then compares every file
+                try {
+                    writeReport(analyzerService);
+                } catch (IOException | RuntimeException e) {
+                    log.error("Analysis failed: {}", e.getMessage(), e);
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private AnalyzerService newAnalyzer(ExecutorService workers) {
+        return new AnalyzerService(sourceRoot, configPath,
+            options.toBuilder().resident(true).executor(workers).build());
+    }
+
+    /**
+     * Writes the report next to its target and moves it into place, so a reader never sees
+     * a partially written report.
+     */
+    private void writeReport(AnalyzerService analyzerService) throws IOException {
+        long start = System.nanoTime();
+        Path absoluteOutput = outputPath.toAbsolutePath();
+        Path temporary = Files.createTempFile(absoluteOutput.getParent(), absoluteOutput.getFileName().toString(), ".tmp");
+        try {
+            try (ReportWriter writer = ReportWriter.open(temporary, options.getReportFormat(), options.isCompactOutput())) {
+                analyzerService.analyze(writer);
+            }
+            Files.move(temporary, absoluteOutput, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        analyzerService.getMetrics().write(absoluteOutput);
+        log.info("Report written to {} in {} ms", absoluteOutput, (System.nanoTime() - start) / 1_000_000);
+    }
+}
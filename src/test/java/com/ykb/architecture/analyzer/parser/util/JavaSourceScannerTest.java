@@ -0,0 +1,198 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.AnnotationMemberDeclaration;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.CompactConstructorDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.ykb.architecture.analyzer.parser.util.JavaSourceScanner.ScannedSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JavaSourceScannerTest {
+
+    @Test
+    void scansPackageAndNestedTypes() {
+        ScannedSource scanned = JavaSourceScanner.scan(String.join("\n",
+            "// package ignored;",
+            "package com.example /* api */ .dto;",
+            "",
+            "public class Account {",
+            "    public enum Status { OPEN, CLOSED; static class Helper {} }",
+            "    interface Visitor {}",
+            "    public record Summary(String id, Status status) {}",
+            "}",
+            "@interface Audited {}"));
+
+        assertEquals("com.example.dto", scanned.getPackageName());
+        assertEquals(List.of(
+                "Account:class",
+                "Account.Status:enum",
+                "Account.Status.Helper:class",
+                "Account.Visitor:interface",
+                "Account.Summary:record",
+                "Audited:@interface"),
+            describe(scanned));
+        assertEquals("com.example.dto.Account.Status", scanned.qualify("Account.Status"));
+    }
+
+    @Test
+    void ignoresKeywordsInLiteralsCommentsAndClassLiterals() {
+        ScannedSource scanned = JavaSourceScanner.scan(String.join("\n",
+            "class Query {",
+            "    String sql = \"\"\"",
+            "        select class from \"enum\" where x = '{'",
+            "        \"\"\";",
+            "    String text = \"interface Fake {\";",
+            "    char brace = '}';",
+            "    /* class Commented {} */",
+            "    Class<?> type = String.class;",
+            "    Runnable task = new Runnable() { public void run() {} };",
+            "    class Inner {}",
+            "}"));
+
+        assertEquals("", scanned.getPackageName());
+        assertEquals(List.of("Query:class", "Query.Inner:class"), describe(scanned));
+    }
+
+    @Test
+    void blanksMethodAndConstructorBodiesOnly() {
+        String source = String.join("\n",
+            "package com.example;",
+            "",
+            "public class Service {",
+            "    private final String name;",
+            "    private final Runnable task = new Runnable() {",
+            "        @Override",
+            "        public void run() { System.out.println(\"run\"); }",
+            "    };",
+            "    private final String template = \"\"\"",
+            "        { \"open\": true }",
+            "        \"\"\";",
+            "    static { System.setProperty(\"a\", \"b\"); }",
+            "",
+            "    public Service(String name) {",
+            "        this.name = name;",
+            "    }",
+            "",
+            "    public <T> T find(Class<T> type) throws java.io.IOException, IllegalStateException {",
+            "        String json = \"\"\"",
+            "            { \"close\": \"}\" }",
+            "            \"\"\";",
+            "        if (json.isEmpty()) { throw new IllegalStateException(\"}\"); }",
+            "        return type.cast(json); // }",
+            "    }",
+            "",
+            "    enum Mode {",
+            "        FAST(\"f\") { @Override String label() { return \"fast\"; } },",
+            "        SLOW(\"s\");",
+            "        private final String code;",
+            "        Mode(String code) { this.code = code; }",
+            "        String label() { return code; }",
+            "    }",
+            "",
+            "    interface Named {",
+            "        default String name() { return \"named\"; }",
+            "    }",
+            "}");
+
+        String blanked = JavaSourceScanner.blankMethodBodies(source);
+        CompilationUnit unit = parse(blanked);
+
+        assertEquals(source.length(), blanked.length());
+        assertEquals(source.lines().count(), blanked.lines().count());
+        for (MethodDeclaration method : unit.findAll(MethodDeclaration.class)) {
+            boolean inEnum = method.findAncestor(EnumDeclaration.class).isPresent();
+            boolean inAnonymousClass = method.findAncestor(ObjectCreationExpr.class).isPresent();
+            assertEquals(inEnum || inAnonymousClass, hasStatements(method), method.getNameAsString());
+        }
+        assertFalse(unit.findFirst(ConstructorDeclaration.class,
+            constructor -> constructor.getNameAsString().equals("Service")).map(JavaSourceScannerTest::hasStatements).orElseThrow());
+        assertTrue(unit.findFirst(ConstructorDeclaration.class,
+            constructor -> constructor.getNameAsString().equals("Mode")).map(JavaSourceScannerTest::hasStatements).orElseThrow());
+        assertEquals(2, unit.findAll(FieldDeclaration.class).stream()
+            .filter(field -> field.findAncestor(EnumDeclaration.class).isEmpty())
+            .filter(field -> field.getVariable(0).getInitializer().isPresent()).count());
+        assertTrue(blanked.contains("{ \"open\": true }"));
+        assertFalse(blanked.contains("close"));
+        assertTrue(blanked.contains("System.setProperty"));
+        assertEquals(2, unit.findFirst(MethodDeclaration.class, method -> method.getNameAsString().equals("find"))
+            .orElseThrow().getThrownExceptions().size());
+    }
+
+    @Test
+    void keepsRecordsCompactConstructorsAndAnnotationDefaults() {
+        String source = String.join("\n",
+            "package com.example;",
+            "",
+            "public record Range<T extends Comparable<T>>(T from, T to) implements java.io.Serializable {",
+            "    public Range {",
+            "        if (from.compareTo(to) > 0) { throw new IllegalArgumentException(); }",
+            "    }",
+            "",
+            "    public Range(T single) {",
+            "        this(single, single);",
+            "    }",
+            "",
+            "    public boolean contains(T value) {",
+            "        return from.compareTo(value) <= 0 && to.compareTo(value) >= 0;",
+            "    }",
+            "",
+            "    public @interface Bounded {",
+            "        String[] names() default {};",
+            "        int[] limits() default { 1, 2 };",
+            "    }",
+            "",
+            "    enum Side { LOWER, UPPER }",
+            "}");
+
+        String blanked = JavaSourceScanner.blankMethodBodies(source);
+        CompilationUnit unit = parse(blanked);
+
+        assertEquals(source.lines().count(), blanked.lines().count());
+        assertEquals(List.of("from", "to"), unit.findFirst(RecordDeclaration.class)
+            .orElseThrow().getParameters().stream().map(Parameter::getNameAsString).collect(Collectors.toList()));
+        assertTrue(unit.findFirst(CompactConstructorDeclaration.class).isPresent());
+        assertFalse(hasStatements(unit.findFirst(ConstructorDeclaration.class).orElseThrow()));
+        assertFalse(hasStatements(unit.findFirst(MethodDeclaration.class).orElseThrow()));
+        assertEquals(List.of("{}", "{ 1, 2 }"), unit.findAll(AnnotationMemberDeclaration.class).stream()
+            .map(member -> member.getDefaultValue().orElseThrow().toString()).collect(Collectors.toList()));
+        assertEquals(2, unit.findFirst(EnumDeclaration.class).orElseThrow().getEntries().size());
+        assertEquals(List.of("Range:record", "Range.Bounded:@interface", "Range.Side:enum"),
+            describe(JavaSourceScanner.scan(blanked)));
+    }
+
+    private static CompilationUnit parse(String source) {
+        ParseResult<CompilationUnit> result = new JavaParser(new ParserConfiguration()
+            .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17)).parse(source);
+        assertTrue(result.isSuccessful(), () -> result.getProblems().toString());
+        return result.getResult().orElseThrow();
+    }
+
+    private static boolean hasStatements(CallableDeclaration<?> declaration) {
+        return declaration instanceof MethodDeclaration
+            ? ((MethodDeclaration) declaration).getBody().map(body -> !body.getStatements().isEmpty()).orElse(false)
+            : !((ConstructorDeclaration) declaration).getBody().getStatements().isEmpty();
+    }
+
+    private static List<String> describe(ScannedSource scanned) {
+        return scanned.getTypes().stream()
+            .map(type -> type.getName() + ":" + type.getKind())
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,87 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathTemplateIndexTest {
+
+    @Test
+    void literalSegmentBeatsVariable() {
+        PathTemplateIndex<String> index = new PathTemplateIndex<>();
+        index.add("GET", "/accounts/{id}", "byId");
+        index.add("GET", "/accounts/me", "me");
+
+        assertEquals(Optional.of("me"), index.match("GET", "/accounts/me"));
+        assertEquals(Optional.of("byId"), index.match("GET", "/accounts/42"));
+    }
+
+    @Test
+    void fallsBackToVariableWhenLiteralBranchDoesNotMatch() {
+        PathTemplateIndex<String> index = new PathTemplateIndex<>();
+        index.add("GET", "/accounts/me/profile", "profile");
+        index.add("GET", "/accounts/{id}/cards", "cards");
+
+        assertEquals(Optional.of("cards"), index.match("GET", "/accounts/me/cards"));
+        assertEquals(Optional.of("profile"), index.match("GET", "/accounts/me/profile"));
+    }
+
+    @Test
+    void variableInLookedUpPathOnlyMatchesVariable() {
+        PathTemplateIndex<String> index = new PathTemplateIndex<>();
+        index.add("GET", "/accounts/me", "me");
+
+        assertTrue(index.match("GET", "/accounts/{accountId}").isEmpty());
+
+        index.add("GET", "/accounts/{id}", "byId");
+        assertEquals(Optional.of("byId"), index.match("GET", "/accounts/{accountId}"));
+    }
+
+    @Test
+    void ignoresDuplicateAndTrailingSlashes() {
+        PathTemplateIndex<String> index = new PathTemplateIndex<>();
+        index.add("POST", "/accounts//{id}/cards/", "cards");
+
+        assertEquals(Optional.of("cards"), index.match("POST", "/accounts/1/cards"));
+        assertEquals(Optional.of("cards"), index.match("POST", "accounts/1//cards//"));
+        assertTrue(index.match("POST", "/accounts/1").isEmpty());
+    }
+
+    @Test
+    void sameTemplateWithOtherVariableNameKeepsFirstValue() {
+        PathTemplateIndex<String> index = new PathTemplateIndex<>();
+
+        assertTrue(index.add("GET", "/accounts/{id}", "first"));
+        assertFalse(index.add("GET", "/accounts/{accountId}/", "second"));
+        assertEquals(1, index.size());
+        assertEquals(Optional.of("first"), index.match("GET", "/accounts/7"));
+    }
+
+    @Test
+    void methodLessTemplateIsFallbackForAnyMethod() {
+        PathTemplateIndex<String> index = new PathTemplateIndex<>();
+        index.add(null, "/accounts/{id}", "any");
+        index.add("DELETE", "/accounts/{id}", "delete");
+
+        assertEquals(Optional.of("delete"), index.match("DELETE", "/accounts/1"));
+        assertEquals(Optional.of("any"), index.match("GET", "/accounts/1"));
+        assertEquals(Optional.of("any"), index.match(null, "/accounts/1"));
+        assertEquals(Map.of(PathTemplateIndex.ANY_METHOD, "any", "DELETE", "delete"),
+            index.matchByMethod("/accounts/1"));
+    }
+
+    @Test
+    void rootPathMatchesEmptyTemplate() {
+        PathTemplateIndex<String> index = new PathTemplateIndex<>();
+        index.add("GET", "/", "root");
+
+        assertEquals(Optional.of("root"), index.match("GET", ""));
+        assertEquals(Optional.of("root"), index.match("GET", "//"));
+        assertTrue(index.match("GET", "/accounts").isEmpty());
+    }
+}
@@ -0,0 +1,152 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TypeResolutionContextTest {
+    private static final int THREADS = 2;
+
+    @TempDir
+    Path sourceRoot;
+
+    private ExecutorService workers;
+    private Path controller;
+    private List<Path> javaFiles;
+
+    @BeforeEach
+    void createRepository() throws IOException {
+        workers = Executors.newFixedThreadPool(THREADS);
+        controller = write("web/AccountController.java",
+            "package com.acme.web;",
+            "",
+            "import com.acme.dto.Account;",
+            "import org.springframework.web.bind.annotation.*;",
+            "",
+            "@RestController",
+            "public class AccountController {",
+            "    @GetMapping(\"/accounts/{id}\")",
+            "    public Account get(@PathVariable Long id) {",
+            "        return null;",
+            "    }",
+            "}");
+        javaFiles = List.of(controller,
+            write("dto/Account.java",
+                "package com.acme.dto;",
+                "",
+                "public class Account {",
+                "    private String iban;",
+                "    private Owner owner;",
+                "}"),
+            write("dto/Owner.java",
+                "package com.acme.dto;",
+                "",
+                "public class Owner {",
+                "    private String name;",
+                "}"));
+    }
+
+    @AfterEach
+    void shutDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void releasedContextIsCollectableWhileSharedWorkersLive() throws Exception {
+        WeakReference<TypeResolutionContext> first = analyzeAndRelease();
+        WeakReference<TypeResolutionContext> second = analyzeAndRelease();
+
+        awaitCollection(first);
+        awaitCollection(second);
+    }
+
+    @Test
+    void typesOutsideTheirOwnFileResolveWithASingleEntryUnitCache() throws IOException {
+        Path card = write("dto/Card.java",
+            "package com.acme.dto;",
+            "",
+            "public class Card {",
+            "    private Title title;",
+            "}");
+        Path owners = write("dto/Owners.java",
+            "package com.acme.dto;",
+            "",
+            "public class Owners {",
+            "}",
+            "",
+            "class Title {",
+            "    private String text;",
+            "}");
+        List<Path> files = new ArrayList<>(javaFiles);
+        files.add(card);
+        files.add(owners);
+        TypeResolutionContext context = new TypeResolutionContext(sourceRoot.toString(), 1, null, true);
+        context.getClassIndex().build(files);
+        TypeResolver resolver = new TypeResolver(context);
+
+        // Title is only found by parsing the whole package directory, which goes through the unit cache
+        for (int i = 0; i < 3; i++) {
+            context.getCompilationUnit(owners);
+            FieldDeclaration title = context.getCompilationUnit(card).findFirst(FieldDeclaration.class).orElseThrow();
+            assertEquals(Map.of("items", Map.of("text", Map.of("type", "String"))),
+                resolver.resolveResponseBody(title.getVariable(0).getType()));
+        }
+        context.releaseSolvers();
+    }
+
+    /**
+     * Resolves the controller's response on every worker, then releases the context's solvers.
+     */
+    private WeakReference<TypeResolutionContext> analyzeAndRelease() throws Exception {
+        TypeResolutionContext context = new TypeResolutionContext(sourceRoot.toString(), 100, null, true);
+        context.getClassIndex().build(javaFiles);
+        TypeResolver resolver = new TypeResolver(context);
+        CompilationUnit unit = context.getCompilationUnit(controller);
+        MethodDeclaration get = unit.findFirst(MethodDeclaration.class).orElseThrow();
+
+        List<Future<Map<String, Object>>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            results.add(workers.submit(() -> resolver.resolveResponseBody(get.getType())));
+        }
+        for (Future<Map<String, Object>> result : results) {
+            assertEquals(Map.of("items", Map.of(
+                    "iban", Map.of("type", "String"),
+                    "owner", Map.of("items", Map.of("name", Map.of("type", "String"))))),
+                result.get());
+        }
+        context.releaseSolvers();
+        return new WeakReference<>(context);
+    }
+
+    private static void awaitCollection(WeakReference<?> reference) throws InterruptedException {
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(reference.get(), "context is still reachable");
+    }
+
+    private Path write(String relativePath, String... lines) throws IOException {
+        Path file = sourceRoot.resolve("src/main/java/com/acme").resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, String.join("\n", lines) + "\n");
+    }
+}
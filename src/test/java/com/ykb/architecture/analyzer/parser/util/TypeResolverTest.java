@@ -0,0 +1,190 @@
+package com.ykb.architecture.analyzer.parser.util;
+
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.type.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypeResolverTest {
+
+    @TempDir
+    Path sourceRoot;
+
+    @TempDir
+    Path libraryDirectory;
+
+    private final List<Path> javaFiles = new ArrayList<>();
+
+    @Test
+    void collectionItemsKeepNestedSchemasThatAreAlreadyCached() throws IOException {
+        write("Holder.java",
+            "package com.acme.dto;",
+            "",
+            "public class Holder {",
+            "    private Wrapper wrapper;",
+            "}");
+        write("Wrapper.java",
+            "package com.acme.dto;",
+            "",
+            "import java.util.List;",
+            "",
+            "public class Wrapper {",
+            "    private Detail detail;",
+            "    private List<Item> items;",
+            "}");
+        write("Item.java",
+            "package com.acme.dto;",
+            "",
+            "import javax.validation.constraints.NotNull;",
+            "",
+            "public class Item {",
+            "    @NotNull",
+            "    private Detail detail;",
+            "}");
+        write("Detail.java",
+            "package com.acme.dto;",
+            "",
+            "public class Detail {",
+            "    private String code;",
+            "}");
+        TypeResolutionContext context = newContext();
+
+        Map<String, Object> fields = new TypeResolver(context).resolveFields(fieldType(context, "Holder.java", "wrapper"));
+
+        assertEquals(Map.of(
+                "type", "array",
+                "required", false,
+                "items", Map.of("detail", Map.of("code", Map.of("type", "String", "required", false), "required", true))),
+            fields.get("items"));
+    }
+
+    @Test
+    void enumsOutsideTheSourcesAreReportedWithTheirValues() throws IOException {
+        write("Schedule.java",
+            "package com.acme.dto;",
+            "",
+            "import com.acme.lib.Currency;",
+            "import java.time.DayOfWeek;",
+            "import java.util.List;",
+            "",
+            "public class Schedule {",
+            "    private Currency currency;",
+            "    private List<Currency> accepted;",
+            "    private DayOfWeek day;",
+            "    private java.time.LocalDate start;",
+            "}");
+        write("Holder.java",
+            "package com.acme.dto;",
+            "",
+            "public class Holder {",
+            "    private Schedule schedule;",
+            "}");
+        Path jar = libraryJar("com.acme.lib.Currency",
+            "package com.acme.lib;",
+            "",
+            "public enum Currency {",
+            "    TRY, USD, EUR",
+            "}");
+
+        try (JarClassIndex jarClassIndex = JarClassIndex.load(List.of(jar), null)) {
+            TypeResolutionContext context = newContext(jarClassIndex);
+            TypeResolver resolver = new TypeResolver(context);
+            Type schedule = fieldType(context, "Holder.java", "schedule");
+
+            Map<String, Object> currency = Map.of("type", "string", "enum", List.of("TRY", "USD", "EUR"));
+            Map<String, Object> day = Map.of("type", "integer", "enum",
+                List.of("MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY"));
+            Map<String, Object> response = resolver.resolveResponseBody(schedule);
+            assertEquals(currency, field(response, "currency"));
+            assertEquals(Map.of("type", "array", "items", currency), field(response, "accepted"));
+            assertEquals(day, field(response, "day"));
+            assertEquals(Map.of("type", "LocalDate"), field(response, "start"));
+
+            Map<String, Object> request = resolver.resolveRequestBody(schedule, true);
+            assertEquals(withRequired(currency), field(request, "currency"));
+            assertEquals(withRequired(day), field(request, "day"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> field(Map<String, Object> schema, String name) {
+        Map<String, Object> items = (Map<String, Object>) schema.get("items");
+        assertTrue(items.containsKey(name), () -> name + " missing in " + schema);
+        return (Map<String, Object>) items.get(name);
+    }
+
+    private static Map<String, Object> withRequired(Map<String, Object> schema) {
+        Map<String, Object> field = new LinkedHashMap<>(schema);
+        field.put("required", false);
+        return field;
+    }
+
+    /**
+     * Compiles a class into a jar of its own, which only the jar index knows.
+     */
+    private Path libraryJar(String qualifiedName, String... lines) throws IOException {
+        Path source = libraryDirectory.resolve("src").resolve(qualifiedName.replace('.', '/') + ".java");
+        Path classes = libraryDirectory.resolve("classes");
+        Files.createDirectories(source.getParent());
+        Files.createDirectories(classes);
+        Files.writeString(source, String.join("\n", lines) + "\n");
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, "-d", classes.toString(), source.toString()));
+
+        Path jar = libraryDirectory.resolve("library.jar");
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> files = Files.walk(classes)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                output.putNextEntry(new JarEntry(classes.relativize(file).toString().replace('\\', '/')));
+                Files.copy(file, (OutputStream) output);
+                output.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private TypeResolutionContext newContext() {
+        return newContext(null);
+    }
+
+    private TypeResolutionContext newContext(JarClassIndex jarClassIndex) {
+        TypeResolutionContext context = new TypeResolutionContext(sourceRoot.toString(), 100, jarClassIndex, true);
+        context.getClassIndex().build(javaFiles);
+        return context;
+    }
+
+    private Type fieldType(TypeResolutionContext context, String file, String field) throws IOException {
+        return context.getCompilationUnit(dtoPath(file))
+                .findFirst(FieldDeclaration.class, declaration -> declaration.getVariable(0).getNameAsString().equals(field))
+                .orElseThrow()
+                .getVariable(0)
+                .getType();
+    }
+
+    private Path dtoPath(String file) {
+        return sourceRoot.resolve("src/main/java/com/acme/dto").resolve(file);
+    }
+
+    private void write(String file, String... lines) throws IOException {
+        Path path = dtoPath(file);
+        Files.createDirectories(path.getParent());
+        javaFiles.add(Files.writeString(path, String.join("\n", lines) + "\n"));
+    }
+}
@@ -0,0 +1,170 @@
+package com.ykb.architecture.analyzer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class IncrementalAnalysisTest {
+    private static final String PACKAGE_PATH = "src/main/java/com/acme/orders/";
+
+    @TempDir
+    Path workspace;
+
+    private Path sourceRoot;
+    private Path configPath;
+    private Path cacheDirectory;
+    private AnalysisMetrics metrics;
+    private int ioConcurrency;
+
+    @BeforeEach
+    void createRepository() throws IOException {
+        sourceRoot = workspace.resolve("orders");
+        cacheDirectory = workspace.resolve("cache");
+        configPath = write("src/main/resources/application.yml",
+            "spring:",
+            "  application:",
+            "    name: acme.orders.order-service");
+        write(PACKAGE_PATH + "web/OrderController.java",
+            "package com.acme.orders.web;",
+            "",
+            "import com.acme.orders.dto.OrderRequest;",
+            "import com.acme.orders.dto.OrderResponse;",
+            "import org.springframework.web.bind.annotation.*;",
+            "",
+            "@RestController",
+            "@RequestMapping(\"/orders\")",
+            "public class OrderController {",
+            "    @PostMapping",
+            "    public OrderResponse create(@RequestBody OrderRequest request) {",
+            "        return null;",
+            "    }",
+            "",
+            "    @GetMapping(\"/{id}\")",
+            "    public OrderResponse get(@PathVariable Long id) {",
+            "        return null;",
+            "    }",
+            "}");
+        write(PACKAGE_PATH + "web/HealthController.java",
+            "package com.acme.orders.web;",
+            "",
+            "import org.springframework.web.bind.annotation.*;",
+            "",
+            "@RestController",
+            "public class HealthController {",
+            "    @GetMapping(\"/health\")",
+            "    public String health() {",
+            "        return \"UP\";",
+            "    }",
+            "}");
+        write(PACKAGE_PATH + "dto/OrderRequest.java",
+            "package com.acme.orders.dto;",
+            "",
+            "import java.util.List;",
+            "",
+            "public class OrderRequest {",
+            "    private String customerId;",
+            "    private List<OrderLine> lines;",
+            "    private Address shippingAddress;",
+            "}");
+        write(PACKAGE_PATH + "dto/OrderResponse.java",
+            "package com.acme.orders.dto;",
+            "",
+            "public class OrderResponse {",
+            "    private Long id;",
+            "    private Address shippingAddress;",
+            "    private Status status;",
+            "",
+            "    public static class Status {",
+            "        private String code;",
+            "    }",
+            "}");
+        write(PACKAGE_PATH + "dto/OrderLine.java",
+            "package com.acme.orders.dto;",
+            "",
+            "public class OrderLine {",
+            "    private String sku;",
+            "    private Address pickupAddress;",
+            "}");
+        write(PACKAGE_PATH + "dto/Address.java",
+            "package com.acme.orders.dto;",
+            "",
+            "public class Address {",
+            "    private String street;",
+            "}");
+    }
+
+    @ParameterizedTest(name = "sharedSchemas={0}, ioConcurrency={1}")
+    @CsvSource({"false, 0", "true, 0", "false, 2", "true, 2"})
+    void incrementalRunAfterNestedDtoEditMatchesFreshRun(boolean sharedSchemas, int ioConcurrency) throws IOException {
+        this.ioConcurrency = ioConcurrency;
+        String initial = analyze(sharedSchemas, cacheDirectory, "initial");
+        assertEquals(initial, analyze(sharedSchemas, cacheDirectory, "unchanged"));
+        assertEquals(2, metrics.getFilesReused());
+
+        write(PACKAGE_PATH + "dto/Address.java",
+            "package com.acme.orders.dto;",
+            "",
+            "public class Address {",
+            "    private String street;",
+            "    private String postalCode;",
+            "}");
+        String incremental = analyze(sharedSchemas, cacheDirectory, "incremental");
+
+        assertEquals(1, metrics.getFilesReused());
+        assertNotEquals(initial, incremental);
+        assertEquals(analyze(sharedSchemas, null, "fresh"), incremental);
+    }
+
+    @ParameterizedTest(name = "sharedSchemas={0}")
+    @ValueSource(booleans = {false, true})
+    void incrementalRunAfterInnerClassEditMatchesFreshRun(boolean sharedSchemas) throws IOException {
+        analyze(sharedSchemas, cacheDirectory, "initial");
+
+        write(PACKAGE_PATH + "dto/OrderResponse.java",
+            "package com.acme.orders.dto;",
+            "",
+            "public class OrderResponse {",
+            "    private Long id;",
+            "    private Address shippingAddress;",
+            "    private Status status;",
+            "",
+            "    public static class Status {",
+            "        private String code;",
+            "        private Address location;",
+            "    }",
+            "}");
+        String incremental = analyze(sharedSchemas, cacheDirectory, "incremental");
+
+        assertEquals(1, metrics.getFilesReused());
+        assertEquals(analyze(sharedSchemas, null, "fresh"), incremental);
+    }
+
+    private String analyze(boolean sharedSchemas, Path incrementalCacheDirectory, String name) throws IOException {
+        AnalyzerOptions options = AnalyzerOptions.builder()
+                .threads(ioConcurrency > 0 ? 2 : 1)
+                .ioConcurrency(ioConcurrency)
+                .sharedSchemas(sharedSchemas)
+                .incrementalCacheDirectory(incrementalCacheDirectory)
+                .build();
+        AnalyzerService service = new AnalyzerService(sourceRoot.toString(), configPath.toString(), options);
+        Path report = workspace.resolve(name + ".json");
+        ReportWriter.write(service.analyze(), report, false);
+        metrics = service.getMetrics();
+        return Files.readString(report);
+    }
+
+    private Path write(String relativePath, String... lines) throws IOException {
+        Path file = sourceRoot.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, String.join("\n", lines) + "\n");
+    }
+}